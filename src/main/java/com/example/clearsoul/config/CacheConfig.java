@@ -0,0 +1,35 @@
+package com.example.clearsoul.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@EnableCaching
+@Configuration
+public class CacheConfig {
+    public static final String USERS_CACHE = "users";
+    public static final String USER_STATS_CACHE = "userStats";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${users.cache.max-size:10000}") long maxSize,
+                                     @Value("${users.cache.ttl:10m}") Duration ttl,
+                                     @Value("${users.stats.cache-ttl:30s}") Duration statsTtl) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(USERS_CACHE, Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(USER_STATS_CACHE, Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(statsTtl)
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.clearsoul.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.BaseSessionEventListener;
+import org.hibernate.Session;
+
+/**
+ * Records how many statements and flushes every Hibernate session did. With
+ * open-in-view disabled a session lives for one service call, so these are
+ * the per-request numbers the global Hibernate statistics can't show.
+ */
+@RequiredArgsConstructor
+public class HibernateSessionMetricsListener extends BaseSessionEventListener {
+    private final DistributionSummary statementsSummary;
+    private final DistributionSummary flushesSummary;
+    private final DistributionSummary flushedEntitiesSummary;
+    private int statements;
+    private int flushes;
+    private int flushedEntities;
+
+    /**
+     * Registers the session meters in the given registry once and returns an
+     * initializer that adds a listener to every new entity manager.
+     */
+    public static Consumer<EntityManager> entityManagerInitializer(MeterRegistry meterRegistry) {
+        DistributionSummary statementsSummary = DistributionSummary
+                .builder("hibernate.session.statements")
+                .description("JDBC statements executed by a Hibernate session")
+                .register(meterRegistry);
+        DistributionSummary flushesSummary = DistributionSummary
+                .builder("hibernate.session.flushes")
+                .description("Flushes done by a Hibernate session")
+                .register(meterRegistry);
+        DistributionSummary flushedEntitiesSummary = DistributionSummary
+                .builder("hibernate.session.flushed.entities")
+                .description("Entities processed by the flushes of a Hibernate session")
+                .register(meterRegistry);
+        return entityManager -> entityManager.unwrap(Session.class).addEventListeners(
+                new HibernateSessionMetricsListener(
+                        statementsSummary, flushesSummary, flushedEntitiesSummary));
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        statements++;
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        statements++;
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        flushes++;
+        flushedEntities += numberOfEntities;
+    }
+
+    @Override
+    public void partialFlushEnd(int numberOfEntities, int numberOfCollections) {
+        flushes++;
+        flushedEntities += numberOfEntities;
+    }
+
+    @Override
+    public void end() {
+        statementsSummary.record(statements);
+        flushesSummary.record(flushes);
+        flushedEntitiesSummary.record(flushedEntities);
+    }
+}
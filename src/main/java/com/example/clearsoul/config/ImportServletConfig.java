@@ -0,0 +1,31 @@
+package com.example.clearsoul.config;
+
+import jakarta.servlet.MultipartConfigElement;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+
+/**
+ * Multipart limits are set per servlet, so CSV uploads get a dispatcher servlet of
+ * their own without size limits. Uploads are written to disk and read as a stream,
+ * every other endpoint keeps the spring.servlet.multipart limits.
+ */
+@Configuration
+public class ImportServletConfig {
+    public static final String IMPORT_PATH = "/api/users/import";
+    private static final long UNLIMITED = -1;
+
+    @Bean
+    public ServletRegistrationBean<DispatcherServlet> importDispatcherServlet(
+            WebApplicationContext applicationContext,
+            MultipartConfigElement multipartConfig) {
+        ServletRegistrationBean<DispatcherServlet> registration = new ServletRegistrationBean<>(
+                new DispatcherServlet(applicationContext), IMPORT_PATH);
+        registration.setName("importDispatcherServlet");
+        registration.setMultipartConfig(new MultipartConfigElement(multipartConfig.getLocation(),
+                UNLIMITED, UNLIMITED, multipartConfig.getFileSizeThreshold()));
+        return registration;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.clearsoul.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+@Configuration
+public class MetricsConfig {
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    /**
+     * Hibernate creates listeners named in hibernate.session.events.auto by
+     * reflection, so the listener is added to each entity manager the factory
+     * creates instead, with the meters bound to the application registry.
+     */
+    @Bean
+    public static BeanPostProcessor hibernateSessionMetricsPostProcessor(
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof AbstractEntityManagerFactoryBean entityManagerFactory) {
+                    entityManagerFactory.setEntityManagerInitializer(HibernateSessionMetricsListener
+                            .entityManagerInitializer(meterRegistry.getObject()));
+                }
+                return bean;
+            }
+        };
+    }
+}
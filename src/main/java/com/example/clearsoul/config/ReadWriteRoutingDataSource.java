@@ -0,0 +1,52 @@
+package com.example.clearsoul.config;
+
+import java.util.Map;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary.
+ * Must sit behind a LazyConnectionDataSourceProxy: the transaction is marked
+ * read-only only after it has begun, so the connection has to be taken later.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    private static final ThreadLocal<Boolean> PRIMARY_READS =
+            ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    public ReadWriteRoutingDataSource(DataSource primaryDataSource,
+                                      DataSource replicaDataSource) {
+        setTargetDataSources(Map.of(
+                Route.PRIMARY, primaryDataSource,
+                Route.REPLICA, replicaDataSource));
+        setDefaultTargetDataSource(primaryDataSource);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Runs the reads of the action on the primary, also in read-only transactions,
+     * for reads that must see the latest commits. The connection of a transaction is
+     * taken by its first statement, which has to run within the action.
+     */
+    public static <T> T readFromPrimary(Supplier<T> action) {
+        Boolean previous = PRIMARY_READS.get();
+        PRIMARY_READS.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            PRIMARY_READS.set(previous);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !PRIMARY_READS.get() ? Route.REPLICA : Route.PRIMARY;
+    }
+
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+}
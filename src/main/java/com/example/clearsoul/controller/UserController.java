@@ -1,31 +1,70 @@
 package com.example.clearsoul.controller;
 
+import com.example.clearsoul.dto.UserBatchResultDto;
+import com.example.clearsoul.dto.UserBulkDeleteDto;
+import com.example.clearsoul.dto.UserBulkDeleteResultDto;
 import com.example.clearsoul.dto.UserCreateDto;
 import com.example.clearsoul.dto.UserDto;
+import com.example.clearsoul.dto.UserEventDto;
+import com.example.clearsoul.dto.UserImportResultDto;
+import com.example.clearsoul.dto.UserPageDto;
+import com.example.clearsoul.dto.UserStatsDto;
 import com.example.clearsoul.dto.UserUpdateDto;
+import com.example.clearsoul.service.UserEventService;
+import com.example.clearsoul.service.UserImportService;
 import com.example.clearsoul.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Tag(name = "User management", description = "Endpoints for managing users")
 @RequiredArgsConstructor
 @RestController
 @RequestMapping(value = "/api/users")
+@Validated
 public class UserController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String TEXT_CSV = "text/csv";
+    private static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+    private static final byte[] SSE_HEARTBEAT = ":\n\n".getBytes(StandardCharsets.UTF_8);
     private final UserService userService;
+    private final UserImportService userImportService;
+    private final UserEventService userEventService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     @Operation(summary = "Create new user", description = "Create new user")
@@ -33,17 +72,100 @@ public class UserController {
         return userService.saveUser(createDto);
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Create users in batch",
+            description = "Create all valid users and report errors of invalid ones by index")
+    public UserBatchResultDto addUsers(@RequestBody List<UserCreateDto> createDtos) {
+        return userService.saveUsers(createDtos);
+    }
+
+    @PostMapping(value = "/import", consumes = TEXT_CSV)
+    @Operation(summary = "Import users from CSV",
+            description = "Create users from CSV request body with a header row of email, "
+                    + "firstName, lastName, birthDate, address and phoneNumber columns. "
+                    + "Returns counts, errors by row number and throughput")
+    public UserImportResultDto importUsers(InputStream body) throws IOException {
+        return userImportService.importUsers(body);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Import users from CSV file",
+            description = "Create users from uploaded CSV file, see text/csv import")
+    public UserImportResultDto importUsersFile(@RequestPart("file") MultipartFile file)
+            throws IOException {
+        try (InputStream inputStream = file.getInputStream()) {
+            return userImportService.importUsers(inputStream);
+        }
+    }
+
     @GetMapping
-    @Operation(summary = "Get all users",
-            description = "Get list of all users")
-    public List<UserDto> getUsers() {
-        return userService.getAllUsers();
+    @Operation(summary = "Get users page",
+            description = "Get page of users ordered by id, starting after the given id. "
+                    + "Id to request the next page is returned in the X-Next-Cursor header")
+    public ResponseEntity<List<UserDto>> getUsers(
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(defaultValue = "50") int limit) {
+        UserPageDto page = userService.getUsers(after, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor().toString());
+        }
+        return response.body(page.getContent());
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export all users",
+            description = "Stream all users as newline delimited JSON")
+    public StreamingResponseBody exportUsers() {
+        return outputStream -> userService.exportUsers(user -> writeLine(outputStream, user));
+    }
+
+    @GetMapping(value = "/events",
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    @Operation(summary = "Stream user changes",
+            description = "Stream create, update and delete events of users ordered by event id, "
+                    + "starting after the given id or the Last-Event-ID header. Every event "
+                    + "holds the current state of the user, none once deleted. The stream stays "
+                    + "open for new events unless follow is false. Newline delimited JSON by "
+                    + "default, server-sent events for Accept: text/event-stream")
+    public ResponseEntity<StreamingResponseBody> streamEvents(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "true") boolean follow,
+            @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) Long lastEventId,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        long cursor = lastEventId == null ? after : lastEventId;
+        if (accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE)) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.TEXT_EVENT_STREAM)
+                    .body(outputStream -> userEventService.streamEvents(cursor, follow,
+                            events -> writeServerSentEvents(outputStream, events)));
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(outputStream -> userEventService.streamEvents(cursor, follow,
+                        events -> writeEventLines(outputStream, events)));
     }
 
     @GetMapping("/{id}")
-    @Operation(summary = "Get user by id", description = "Get user by id")
-    public UserDto getUserById(@PathVariable Long id) {
-        return userService.getById(id);
+    @Operation(summary = "Get user by id",
+            description = "Get user by id. Answers 304 Not Modified when the If-None-Match "
+                    + "header holds the current ETag of the user")
+    public ResponseEntity<UserDto> getUserById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+            String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String eTag = toEtag(userService.getVersion(id));
+            if (matchesEtag(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+        }
+        UserDto user = userService.getById(id);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(toEtag(user.getVersion()));
+        if (user.getUpdatedAt() != null) {
+            response.lastModified(user.getUpdatedAt().atZone(ZoneId.systemDefault()));
+        }
+        return response.body(user);
     }
 
     @PutMapping("/{id}")
@@ -53,12 +175,55 @@ public class UserController {
         return userService.updateUser(id, updateDto);
     }
 
+    @PatchMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Operation(summary = "Partially update user by id",
+            description = "Update only the given fields of user by id")
+    public void patchUser(@PathVariable Long id,
+                          @Valid @RequestBody UserUpdateDto updateDto) {
+        userService.patchUser(id, updateDto);
+    }
+
     @GetMapping("/search")
     @Operation(summary = "Search user by birth date range",
-            description = "Search user by birth date range")
+            description = "Search page of users by birth date range. "
+                    + "Users are sorted by birth date by default")
     public List<UserDto> searchByDateRange(@RequestParam LocalDate fromDate,
-                                  @RequestParam LocalDate toDate) {
-        return userService.searchUsersByDateRange(fromDate, toDate);
+                                  @RequestParam LocalDate toDate,
+                                  @ParameterObject @PageableDefault(size = 50,
+                                          sort = {"birthDate", "id"}) Pageable pageable) {
+        return userService.searchUsersByDateRange(fromDate, toDate, pageable);
+    }
+
+    @GetMapping("/birthdays")
+    @Operation(summary = "Get upcoming birthdays",
+            description = "Get page of users whose birthday falls within the given number "
+                    + "of days from the given date, today by default. "
+                    + "Users are sorted by the nearest birthday")
+    public List<UserDto> getUpcomingBirthdays(@RequestParam(required = false) LocalDate fromDate,
+                                              @RequestParam(defaultValue = "30") int days,
+                                              @ParameterObject @PageableDefault(size = 50)
+                                              Pageable pageable) {
+        return userService.getUpcomingBirthdays(
+                fromDate == null ? LocalDate.now() : fromDate, days, pageable);
+    }
+
+    @GetMapping("/lookup")
+    @Operation(summary = "Look up users",
+            description = "Get page of users whose email, first name or last name contains "
+                    + "the given text, ignoring case. Users are sorted by id")
+    public List<UserDto> lookupUsers(@RequestParam @Size(min = 3, max = 100) String q,
+                                     @ParameterObject @PageableDefault(size = 50)
+                                     Pageable pageable) {
+        return userService.lookupUsers(q, pageable);
+    }
+
+    @GetMapping("/stats")
+    @Operation(summary = "Get user statistics",
+            description = "Get the number of active users, their number by age bucket and "
+                    + "by birth year. The result may be a few seconds old")
+    public UserStatsDto getStats() {
+        return userService.getStats();
     }
 
     @DeleteMapping("/{id}")
@@ -66,4 +231,68 @@ public class UserController {
     public void deleteUser(@PathVariable Long id) {
         userService.deleteUser(id);
     }
+
+    @DeleteMapping
+    @Operation(summary = "Delete users in bulk",
+            description = "Delete users by list of ids or by birth date range. "
+                    + "Returns the number of deleted users")
+    public UserBulkDeleteResultDto deleteUsers(@RequestBody @Valid UserBulkDeleteDto deleteDto) {
+        return userService.deleteUsers(deleteDto);
+    }
+
+    private String toEtag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    private boolean matchesEtag(String ifNoneMatch, String eTag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(eTag) || value.equals("W/" + eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeLine(OutputStream outputStream, UserDto user) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(user));
+            outputStream.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't write user with id " + user.getId(), e);
+        }
+    }
+
+    private void writeEventLines(OutputStream outputStream, List<UserEventDto> events) {
+        try {
+            if (events.isEmpty()) {
+                outputStream.write('\n');
+            }
+            for (UserEventDto event : events) {
+                outputStream.write(objectMapper.writeValueAsBytes(event));
+                outputStream.write('\n');
+            }
+            outputStream.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't write user events", e);
+        }
+    }
+
+    private void writeServerSentEvents(OutputStream outputStream, List<UserEventDto> events) {
+        try {
+            if (events.isEmpty()) {
+                outputStream.write(SSE_HEARTBEAT);
+            }
+            for (UserEventDto event : events) {
+                outputStream.write(("id: " + event.getId() + "\nevent: " + event.getType()
+                        + "\ndata: ").getBytes(StandardCharsets.UTF_8));
+                outputStream.write(objectMapper.writeValueAsBytes(event));
+                outputStream.write('\n');
+                outputStream.write('\n');
+            }
+            outputStream.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't write user events", e);
+        }
+    }
 }
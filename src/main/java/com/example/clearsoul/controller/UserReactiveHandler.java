@@ -0,0 +1,98 @@
+package com.example.clearsoul.controller;
+
+import com.example.clearsoul.dto.UserDto;
+import com.example.clearsoul.exception.DateRangeException;
+import com.example.clearsoul.exception.EntityNotFoundException;
+import com.example.clearsoul.repository.UserReactiveRepository;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive user reads, served by the Netty server of ReactiveConfig rather than
+ * by Tomcat: responses are written without blocking, so a slow client holds a
+ * connection but no thread, and streams are sent as fast as the client reads.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "users.reactive.enabled", havingValue = "true")
+public class UserReactiveHandler {
+    private final UserReactiveRepository userReactiveRepository;
+
+    public RouterFunction<ServerResponse> routes() {
+        return RouterFunctions.route()
+                .GET("/api/reactive/users/search", this::searchByDateRange)
+                .GET("/api/reactive/users/{id}", this::getUserById)
+                .GET("/api/reactive/users", this::getUsers)
+                .onError(EntityNotFoundException.class, (ex, request) ->
+                        error(HttpStatus.NOT_FOUND, ex.getMessage()))
+                .onError(ex -> ex instanceof DateRangeException
+                                || ex instanceof DateTimeException
+                                || ex instanceof IllegalArgumentException,
+                        (ex, request) -> error(HttpStatus.BAD_REQUEST, ex.getMessage()))
+                .build();
+    }
+
+    public Mono<ServerResponse> getUsers(ServerRequest request) {
+        return Mono.defer(() -> {
+            Long after = request.queryParam("after").map(Long::valueOf).orElse(0L);
+            return ServerResponse.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(userReactiveRepository.findAllAfter(after), UserDto.class);
+        });
+    }
+
+    public Mono<ServerResponse> getUserById(ServerRequest request) {
+        return Mono.defer(() -> {
+            Long id = Long.valueOf(request.pathVariable("id"));
+            return userReactiveRepository.findById(id)
+                    .switchIfEmpty(Mono.error(() ->
+                            new EntityNotFoundException("Can't find user with id " + id)))
+                    .flatMap(user -> ServerResponse.ok()
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .bodyValue(user));
+        });
+    }
+
+    public Mono<ServerResponse> searchByDateRange(ServerRequest request) {
+        return Mono.defer(() -> {
+            LocalDate fromDate = requiredDate(request, "fromDate");
+            LocalDate toDate = requiredDate(request, "toDate");
+            if (fromDate.isAfter(toDate)) {
+                throw new DateRangeException("The second date is after the first. Change it!");
+            }
+            return ServerResponse.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(userReactiveRepository.findByBirthDateBetween(fromDate, toDate),
+                            UserDto.class);
+        });
+    }
+
+    private LocalDate requiredDate(ServerRequest request, String name) {
+        return LocalDate.parse(request.queryParam(name).orElseThrow(() ->
+                new IllegalArgumentException("Parameter " + name + " is required")));
+    }
+
+    private Mono<ServerResponse> error(HttpStatus status, String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", status.value());
+        body.put("errors", List.of(message));
+        return ServerResponse.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.clearsoul.dto;
+
+import java.util.List;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+public class UserBatchResultDto {
+    private int created;
+    private List<UserBatchErrorDto> errors;
+}
@@ -0,0 +1,25 @@
+package com.example.clearsoul.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import java.time.LocalDate;
+import java.util.List;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+public class UserBulkDeleteDto {
+    private List<Long> ids;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+
+    @JsonIgnore
+    @AssertTrue(message = "Set either ids or both fromDate and toDate")
+    public boolean isSelectionValid() {
+        if (ids != null && !ids.isEmpty()) {
+            return fromDate == null && toDate == null;
+        }
+        return fromDate != null && toDate != null;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.clearsoul.dto;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+public class UserBulkDeleteResultDto {
+    private int deleted;
+}
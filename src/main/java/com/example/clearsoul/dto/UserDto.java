@@ -1,10 +1,17 @@
 package com.example.clearsoul.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
 import lombok.experimental.Accessors;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 @Accessors(chain = true)
 public class UserDto {
     private Long id;
@@ -14,4 +21,10 @@ public class UserDto {
     private LocalDate birthDate;
     private String address;
     private String phoneNumber;
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private Long version;
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private LocalDateTime updatedAt;
 }
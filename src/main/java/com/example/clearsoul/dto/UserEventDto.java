@@ -0,0 +1,16 @@
+package com.example.clearsoul.dto;
+
+import com.example.clearsoul.model.UserEventType;
+import java.time.LocalDateTime;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+public class UserEventDto {
+    private Long id;
+    private UserEventType type;
+    private Long userId;
+    private LocalDateTime createdAt;
+    private UserDto user;
+}
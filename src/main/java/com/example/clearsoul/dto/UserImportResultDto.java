@@ -0,0 +1,17 @@
+package com.example.clearsoul.dto;
+
+import java.util.List;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+public class UserImportResultDto {
+    private long rows;
+    private long created;
+    private long failed;
+    private List<UserImportErrorDto> errors;
+    private boolean errorsTruncated;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+}
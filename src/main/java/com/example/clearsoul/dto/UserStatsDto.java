@@ -0,0 +1,13 @@
+package com.example.clearsoul.dto;
+
+import java.util.Map;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+public class UserStatsDto {
+    private long total;
+    private Map<String, Long> ageBuckets;
+    private Map<Integer, Long> birthYears;
+}
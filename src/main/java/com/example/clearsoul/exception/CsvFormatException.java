@@ -0,0 +1,7 @@
+package com.example.clearsoul.exception;
+
+public class CsvFormatException extends RuntimeException {
+    public CsvFormatException(String message) {
+        super(message);
+    }
+}
@@ -6,15 +6,21 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import lombok.Data;
 import lombok.experimental.Accessors;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.annotations.Where;
 
 @Entity
 @Data
-@SQLDelete(sql = "UPDATE users SET is_delete = TRUE WHERE id = ?")
+@DynamicUpdate
+@SQLDelete(sql = "UPDATE users SET is_delete = TRUE, deleted_at = CURRENT_TIMESTAMP, "
+        + "version = version + 1 WHERE id = ? AND version = ?")
 @Where(clause = "is_delete = FALSE")
 @Table(name = "users")
 @Accessors(chain = true)
@@ -30,9 +36,16 @@ public class User {
     private String lastName;
     @Column(name = "birth_date", nullable = false)
     private LocalDate birthDate;
+    @Column(name = "birth_month_day", insertable = false, updatable = false)
+    private Integer birthMonthDay;
     private String address;
     @Column(name = "phone_number")
     private String phoneNumber;
     @Column(nullable = false, name = "is_delete")
     private boolean isDelete;
+    @Version
+    private Long version;
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
 }
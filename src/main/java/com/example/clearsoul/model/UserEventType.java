@@ -0,0 +1,7 @@
+package com.example.clearsoul.model;
+
+public enum UserEventType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
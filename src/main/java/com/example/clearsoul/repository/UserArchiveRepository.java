@@ -0,0 +1,40 @@
+package com.example.clearsoul.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+@RequiredArgsConstructor
+public class UserArchiveRepository {
+    private static final String SELECT_DELETED_IDS = "SELECT id FROM users "
+            + "WHERE is_delete = TRUE AND deleted_at < :deletedBefore ORDER BY id LIMIT :limit";
+    private static final String COPY_TO_ARCHIVE = "INSERT INTO users_archive "
+            + "(id, email, first_name, last_name, birth_date, address, phone_number, "
+            + "deleted_at, archived_at) "
+            + "SELECT id, email, first_name, last_name, birth_date, address, phone_number, "
+            + "deleted_at, CURRENT_TIMESTAMP FROM users WHERE id IN (:ids) AND is_delete = TRUE";
+    private static final String DELETE_USERS = "DELETE FROM users "
+            + "WHERE id IN (:ids) AND is_delete = TRUE";
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public List<Long> findDeletedIds(LocalDateTime deletedBefore, int limit) {
+        return jdbcTemplate.queryForList(SELECT_DELETED_IDS,
+                Map.of("deletedBefore", deletedBefore, "limit", limit), Long.class);
+    }
+
+    @Transactional
+    public int archive(List<Long> ids) {
+        jdbcTemplate.update(COPY_TO_ARCHIVE, Map.of("ids", ids));
+        return jdbcTemplate.update(DELETE_USERS, Map.of("ids", ids));
+    }
+
+    @Transactional
+    public int purge(List<Long> ids) {
+        return jdbcTemplate.update(DELETE_USERS, Map.of("ids", ids));
+    }
+}
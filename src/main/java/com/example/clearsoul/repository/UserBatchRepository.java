@@ -0,0 +1,58 @@
+package com.example.clearsoul.repository;
+
+import com.example.clearsoul.model.User;
+import com.example.clearsoul.model.UserEventType;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Hibernate can't batch inserts of identity ids, the JDBC driver can.
+ * Generated ids are set back on the given users, their CREATED events are
+ * recorded in the same transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserBatchRepository {
+    private static final String INSERT_USER = "INSERT INTO users "
+            + "(email, first_name, last_name, birth_date, address, phone_number) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String[] GENERATED_COLUMNS = {"id"};
+    private final JdbcTemplate jdbcTemplate;
+    private final UserEventRepository userEventRepository;
+
+    @Transactional
+    public List<User> insertAll(List<User> users) {
+        jdbcTemplate.execute((ConnectionCallback<List<User>>) connection -> {
+            try (PreparedStatement statement =
+                         connection.prepareStatement(INSERT_USER, GENERATED_COLUMNS)) {
+                for (User user : users) {
+                    statement.setString(1, user.getEmail());
+                    statement.setString(2, user.getFirstName());
+                    statement.setString(3, user.getLastName());
+                    statement.setObject(4, user.getBirthDate());
+                    statement.setString(5, user.getAddress());
+                    statement.setString(6, user.getPhoneNumber());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    for (User user : users) {
+                        if (keys.next()) {
+                            user.setId(keys.getLong(1));
+                        }
+                    }
+                }
+            }
+            return users;
+        });
+        userEventRepository.insertAll(UserEventType.CREATED,
+                users.stream().map(User::getId).toList());
+        return users;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.clearsoul.repository;
+
+import com.example.clearsoul.model.UserEventType;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Soft deletes users one batch per transaction. The active users of a batch are
+ * locked first, so exactly the users the batch deletes get DELETED events and
+ * are returned, even when another request deletes some of them concurrently.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserDeleteRepository {
+    private static final String SELECT_ACTIVE_IDS = "SELECT id FROM users "
+            + "WHERE id IN (:ids) AND is_delete = FALSE ORDER BY id FOR UPDATE";
+    private static final String SELECT_ACTIVE_IDS_BY_BIRTH_DATE = "SELECT id FROM users "
+            + "WHERE is_delete = FALSE AND birth_date BETWEEN :fromDate AND :toDate "
+            + "ORDER BY birth_date, id LIMIT :limit FOR UPDATE";
+    private static final String SOFT_DELETE = "UPDATE users SET is_delete = TRUE, "
+            + "deleted_at = CURRENT_TIMESTAMP, version = version + 1 WHERE id IN (:ids)";
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final UserEventRepository userEventRepository;
+
+    @Transactional
+    public List<Long> softDeleteByIds(Collection<Long> ids) {
+        return softDelete(jdbcTemplate.queryForList(SELECT_ACTIVE_IDS,
+                Map.of("ids", ids), Long.class));
+    }
+
+    /**
+     * Deletes up to the given number of active users born in the range, the ones
+     * born first. Call again until fewer than the limit are deleted.
+     */
+    @Transactional
+    public List<Long> softDeleteByBirthDate(LocalDate fromDate, LocalDate toDate, int limit) {
+        return softDelete(jdbcTemplate.queryForList(SELECT_ACTIVE_IDS_BY_BIRTH_DATE, Map.of(
+                "fromDate", fromDate,
+                "toDate", toDate,
+                "limit", limit), Long.class));
+    }
+
+    private List<Long> softDelete(List<Long> ids) {
+        if (!ids.isEmpty()) {
+            jdbcTemplate.update(SOFT_DELETE, Map.of("ids", ids));
+            userEventRepository.insertAll(UserEventType.DELETED, ids);
+        }
+        return ids;
+    }
+}
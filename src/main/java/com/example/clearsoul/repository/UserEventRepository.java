@@ -0,0 +1,126 @@
+package com.example.clearsoul.repository;
+
+import com.example.clearsoul.dto.UserDto;
+import com.example.clearsoul.dto.UserEventDto;
+import com.example.clearsoul.model.UserEventType;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Outbox of user changes. Events are written in the transaction of the change
+ * and read joined with the current state of the user, which is null once deleted.
+ * Ids come from the identity column and are taken on insert but become visible on
+ * commit, so a reader must not move its cursor past an id that commits later.
+ * Every writer registers the highest id known before it inserts, all its ids are
+ * above it, and reads stop at the lowest such floor until the writer ends. Only
+ * writers of this instance are tracked, writers never wait for each other.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserEventRepository {
+    private static final String INSERT_EVENT = "INSERT INTO user_events "
+            + "(user_id, type, created_at) VALUES (:userId, :type, :createdAt)";
+    private static final String SELECT_LAST_ID = "SELECT COALESCE(MAX(id), 0) FROM user_events";
+    private static final String SELECT_EVENTS = "SELECT e.id, e.type, e.user_id, e.created_at, "
+            + "u.email, u.first_name, u.last_name, u.birth_date, u.address, u.phone_number "
+            + "FROM user_events e "
+            + "LEFT JOIN users u ON u.id = e.user_id AND u.is_delete = FALSE "
+            + "WHERE e.id > :afterId AND e.id <= :lastId "
+            + "ORDER BY e.id LIMIT :limit";
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final Map<Object, Long> writerFloors = new ConcurrentHashMap<>();
+    private final AtomicLong lastSeenId = new AtomicLong();
+
+    public void insert(UserEventType type, Long userId) {
+        insertAll(type, List.of(userId));
+    }
+
+    /**
+     * Must run in the transaction of the change, reads are held back at the
+     * inserted ids until it ends: record events as late in the transaction as possible.
+     */
+    public void insertAll(UserEventType type, List<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        Object writer = new Object();
+        writerFloors.put(writer, lastSeenId.get());
+        try {
+            LocalDateTime createdAt = LocalDateTime.now();
+            jdbcTemplate.batchUpdate(INSERT_EVENT, userIds.stream()
+                    .map(userId -> new MapSqlParameterSource()
+                            .addValue("userId", userId)
+                            .addValue("type", type.name())
+                            .addValue("createdAt", createdAt))
+                    .toArray(SqlParameterSource[]::new));
+        } finally {
+            afterCompletion(() -> writerFloors.remove(writer));
+        }
+    }
+
+    /**
+     * Reads committed events after the given id, up to the lowest id a writer of
+     * this instance may still commit.
+     */
+    public List<UserEventDto> findAfter(long afterId, int limit) {
+        long lastId = jdbcTemplate.queryForObject(SELECT_LAST_ID, Map.of(), Long.class);
+        lastSeenId.accumulateAndGet(lastId, Math::max);
+        for (long floor : writerFloors.values()) {
+            lastId = Math.min(lastId, floor);
+        }
+        if (lastId <= afterId) {
+            return List.of();
+        }
+        return jdbcTemplate.query(SELECT_EVENTS, Map.of(
+                "afterId", afterId,
+                "lastId", lastId,
+                "limit", limit), (resultSet, rowNum) -> toEventDto(resultSet));
+    }
+
+    private UserEventDto toEventDto(ResultSet resultSet) throws SQLException {
+        UserEventDto event = new UserEventDto()
+                .setId(resultSet.getLong("id"))
+                .setType(UserEventType.valueOf(resultSet.getString("type")))
+                .setUserId(resultSet.getLong("user_id"))
+                .setCreatedAt(resultSet.getObject("created_at", LocalDateTime.class));
+        String email = resultSet.getString("email");
+        if (email != null) {
+            event.setUser(new UserDto()
+                    .setId(event.getUserId())
+                    .setEmail(email)
+                    .setFirstName(resultSet.getString("first_name"))
+                    .setLastName(resultSet.getString("last_name"))
+                    .setBirthDate(resultSet.getObject("birth_date", LocalDate.class))
+                    .setAddress(resultSet.getString("address"))
+                    .setPhoneNumber(resultSet.getString("phone_number")));
+        }
+        return event;
+    }
+
+    private void afterCompletion(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            action.run();
+                        }
+                    });
+        } else {
+            action.run();
+        }
+    }
+}
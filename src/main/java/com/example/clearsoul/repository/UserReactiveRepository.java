@@ -0,0 +1,58 @@
+package com.example.clearsoul.repository;
+
+import com.example.clearsoul.dto.UserDto;
+import io.r2dbc.spi.Readable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "users.reactive.enabled", havingValue = "true")
+public class UserReactiveRepository {
+    private static final String SELECT_ACTIVE_USERS = "SELECT id, email, first_name, last_name, "
+            + "birth_date, address, phone_number, version, updated_at FROM users "
+            + "WHERE is_delete = FALSE ";
+    private final DatabaseClient databaseClient;
+
+    public Mono<UserDto> findById(Long id) {
+        return databaseClient.sql(SELECT_ACTIVE_USERS + "AND id = :id")
+                .bind("id", id)
+                .map(this::toDto)
+                .one();
+    }
+
+    public Flux<UserDto> findAllAfter(Long afterId) {
+        return databaseClient.sql(SELECT_ACTIVE_USERS + "AND id > :afterId ORDER BY id")
+                .bind("afterId", afterId)
+                .map(this::toDto)
+                .all();
+    }
+
+    public Flux<UserDto> findByBirthDateBetween(LocalDate fromDate, LocalDate toDate) {
+        return databaseClient.sql(SELECT_ACTIVE_USERS
+                        + "AND birth_date BETWEEN :fromDate AND :toDate ORDER BY birth_date, id")
+                .bind("fromDate", fromDate)
+                .bind("toDate", toDate)
+                .map(this::toDto)
+                .all();
+    }
+
+    private UserDto toDto(Readable row) {
+        return new UserDto(
+                row.get("id", Long.class),
+                row.get("email", String.class),
+                row.get("first_name", String.class),
+                row.get("last_name", String.class),
+                row.get("birth_date", LocalDate.class),
+                row.get("address", String.class),
+                row.get("phone_number", String.class),
+                row.get("version", Long.class),
+                row.get("updated_at", LocalDateTime.class));
+    }
+}
@@ -1,10 +1,121 @@
 package com.example.clearsoul.repository;
 
+import com.example.clearsoul.dto.UserDto;
 import com.example.clearsoul.model.User;
+import jakarta.persistence.QueryHint;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 public interface UserRepository extends JpaRepository<User, Long> {
-    List<User> findByBirthDateBetween(LocalDate fromDate, LocalDate toDate);
+    String SELECT_USER_DTO = "SELECT new com.example.clearsoul.dto.UserDto(u.id, u.email, "
+            + "u.firstName, u.lastName, u.birthDate, u.address, u.phoneNumber, u.version, "
+            + "u.updatedAt) FROM User u ";
+
+    @Query(SELECT_USER_DTO + "ORDER BY u.id")
+    List<UserDto> findAllDtos();
+
+    @Query(SELECT_USER_DTO + "WHERE u.id = :id")
+    Optional<UserDto> findDtoById(@Param("id") Long id);
+
+    @Query("SELECT u.version FROM User u WHERE u.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query(SELECT_USER_DTO + "WHERE u.id IN :ids")
+    List<UserDto> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(SELECT_USER_DTO + "WHERE u.id > :afterId ORDER BY u.id")
+    List<UserDto> findDtosByIdGreaterThan(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query(SELECT_USER_DTO + "WHERE u.birthDate BETWEEN :fromDate AND :toDate")
+    List<UserDto> findDtosByBirthDateBetween(@Param("fromDate") LocalDate fromDate,
+                                             @Param("toDate") LocalDate toDate,
+                                             Pageable pageable);
+
+    @Query(SELECT_USER_DTO + "WHERE u.birthMonthDay BETWEEN :fromMonthDay AND :toMonthDay "
+            + "ORDER BY u.birthMonthDay, u.id")
+    List<UserDto> findDtosByBirthMonthDayBetween(@Param("fromMonthDay") int fromMonthDay,
+                                                 @Param("toMonthDay") int toMonthDay,
+                                                 Pageable pageable);
+
+    @Query("SELECT COUNT(u) FROM User u "
+            + "WHERE u.birthMonthDay BETWEEN :fromMonthDay AND :toMonthDay")
+    long countByBirthMonthDayBetween(@Param("fromMonthDay") int fromMonthDay,
+                                     @Param("toMonthDay") int toMonthDay);
+
+    @Query(SELECT_USER_DTO + "WHERE lower(u.email) LIKE :pattern ESCAPE '!' "
+            + "OR lower(u.firstName) LIKE :pattern ESCAPE '!' "
+            + "OR lower(u.lastName) LIKE :pattern ESCAPE '!' ORDER BY u.id")
+    List<UserDto> findDtosByLookupPattern(@Param("pattern") String pattern, Pageable pageable);
+
+    @Query("SELECT COUNT(u), "
+            + "COALESCE(SUM(CASE WHEN u.birthDate > :bornBefore25 THEN 1 ELSE 0 END), 0), "
+            + "COALESCE(SUM(CASE WHEN u.birthDate <= :bornBefore25 "
+            + "AND u.birthDate > :bornBefore35 THEN 1 ELSE 0 END), 0), "
+            + "COALESCE(SUM(CASE WHEN u.birthDate <= :bornBefore35 "
+            + "AND u.birthDate > :bornBefore45 THEN 1 ELSE 0 END), 0), "
+            + "COALESCE(SUM(CASE WHEN u.birthDate <= :bornBefore45 "
+            + "AND u.birthDate > :bornBefore55 THEN 1 ELSE 0 END), 0), "
+            + "COALESCE(SUM(CASE WHEN u.birthDate <= :bornBefore55 "
+            + "AND u.birthDate > :bornBefore65 THEN 1 ELSE 0 END), 0), "
+            + "COALESCE(SUM(CASE WHEN u.birthDate <= :bornBefore65 THEN 1 ELSE 0 END), 0) "
+            + "FROM User u")
+    List<Object[]> countByAgeBuckets(@Param("bornBefore25") LocalDate bornBefore25,
+                                     @Param("bornBefore35") LocalDate bornBefore35,
+                                     @Param("bornBefore45") LocalDate bornBefore45,
+                                     @Param("bornBefore55") LocalDate bornBefore55,
+                                     @Param("bornBefore65") LocalDate bornBefore65);
+
+    @Query("SELECT YEAR(u.birthDate), COUNT(u) FROM User u "
+            + "GROUP BY YEAR(u.birthDate) ORDER BY YEAR(u.birthDate)")
+    List<Object[]> countByBirthYear();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_USER_DTO + "ORDER BY u.id")
+    Stream<UserDto> streamAllDtos();
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE User u SET u.email = COALESCE(:email, u.email), "
+            + "u.firstName = COALESCE(:firstName, u.firstName), "
+            + "u.lastName = COALESCE(:lastName, u.lastName), "
+            + "u.birthDate = COALESCE(:birthDate, u.birthDate), "
+            + "u.address = COALESCE(:address, u.address), "
+            + "u.phoneNumber = COALESCE(:phoneNumber, u.phoneNumber), "
+            + "u.version = u.version + 1, u.updatedAt = LOCAL DATETIME "
+            + "WHERE u.id = :id AND u.isDelete = false")
+    int updateNonNullFields(@Param("id") Long id,
+                            @Param("email") String email,
+                            @Param("firstName") String firstName,
+                            @Param("lastName") String lastName,
+                            @Param("birthDate") LocalDate birthDate,
+                            @Param("address") String address,
+                            @Param("phoneNumber") String phoneNumber);
+
+    @Query(value = "SELECT COUNT(*) FROM users", nativeQuery = true)
+    long countIncludingDeleted();
+
+    @Query(value = "SELECT COUNT(*) FROM users WHERE email = :email", nativeQuery = true)
+    long countByEmailIncludingDeleted(@Param("email") String email);
+
+    @Query(value = "SELECT COUNT(*) FROM users WHERE email = :email AND id <> :id",
+            nativeQuery = true)
+    long countByEmailAndIdNotIncludingDeleted(@Param("email") String email,
+                                              @Param("id") Long id);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.id, u.birthDate FROM User u")
+    Stream<Object[]> streamIdsAndBirthDates();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = "SELECT email FROM users", nativeQuery = true)
+    Stream<String> streamAllEmails();
 }
@@ -0,0 +1,324 @@
+package com.example.clearsoul.service;
+
+import com.example.clearsoul.repository.UserRepository;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Ids of active users sorted by birth date and id, kept in memory to answer
+ * birth date range searches without the database.
+ * Every user is one long key: epoch day of the birth date in the high bits and
+ * id in the low 40 bits, so the keys sort by birth date, then by id. Changes go
+ * to small sorted buffers, which are merged into the main array once they grow.
+ * Changes made in a transaction are applied after it commits.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "users.birth-date-index.enabled", havingValue = "true")
+public class BirthDateIndex {
+    private static final int ID_BITS = 40;
+    private static final long ID_MASK = (1L << ID_BITS) - 1;
+    private static final long EPOCH_DAY_OFFSET = 1L << 21;
+    private static final int COMPACT_THRESHOLD = 4096;
+    private final UserRepository userRepository;
+    private final TransactionTemplate primaryTransaction;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private IdToEpochDayMap epochDays = new IdToEpochDayMap();
+    private long[] keys = new long[0];
+    private long[] added = new long[COMPACT_THRESHOLD];
+    private int addedSize;
+    private long[] removed = new long[COMPACT_THRESHOLD];
+    private int removedSize;
+    private volatile boolean ready;
+
+    public BirthDateIndex(UserRepository userRepository,
+                          PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            epochDays = new IdToEpochDayMap();
+            addedSize = 0;
+            removedSize = 0;
+            long[] loaded = primaryTransaction.execute(status -> {
+                try (Stream<Object[]> users = userRepository.streamIdsAndBirthDates()) {
+                    return users.mapToLong(user -> {
+                        long id = (Long) user[0];
+                        long epochDay = ((LocalDate) user[1]).toEpochDay();
+                        epochDays.put(id, epochDay);
+                        return toKey(epochDay, id);
+                    }).toArray();
+                }
+            });
+            Arrays.sort(loaded);
+            keys = loaded;
+            ready = true;
+            log.info("Birth date index is loaded with {} users", keys.length);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void put(Long id, LocalDate birthDate) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                putNow(id, birthDate);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void remove(Long id) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeNow(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Returns ids of users born from fromDate to toDate inclusive, ordered by
+     * birth date and id, skipping the first offset of them.
+     */
+    public long[] findIds(LocalDate fromDate, LocalDate toDate, long offset, int limit) {
+        long fromKey = toKey(fromDate.toEpochDay(), 0);
+        long toKey = toKey(toDate.toEpochDay() + 1, 0);
+        lock.readLock().lock();
+        try {
+            int keyIndex = lowerBound(keys, keys.length, fromKey);
+            int addedIndex = lowerBound(added, addedSize, fromKey);
+            long skipped = 0;
+            long[] ids = new long[limit];
+            int count = 0;
+            while (count < limit) {
+                long key;
+                boolean fromKeys = keyIndex < keys.length && keys[keyIndex] < toKey;
+                boolean fromAdded = addedIndex < addedSize && added[addedIndex] < toKey;
+                if (fromKeys && (!fromAdded || keys[keyIndex] < added[addedIndex])) {
+                    key = keys[keyIndex++];
+                    if (Arrays.binarySearch(removed, 0, removedSize, key) >= 0) {
+                        continue;
+                    }
+                } else if (fromAdded) {
+                    key = added[addedIndex++];
+                } else {
+                    break;
+                }
+                if (skipped++ >= offset) {
+                    ids[count++] = key & ID_MASK;
+                }
+            }
+            return count == limit ? ids : Arrays.copyOf(ids, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            change.run();
+                        }
+                    });
+        } else {
+            change.run();
+        }
+    }
+
+    private void putNow(Long id, LocalDate birthDate) {
+        long epochDay = birthDate.toEpochDay();
+        long oldEpochDay = epochDays.put(id, epochDay);
+        if (oldEpochDay == epochDay) {
+            return;
+        }
+        if (oldEpochDay != IdToEpochDayMap.MISSING) {
+            removeKey(toKey(oldEpochDay, id));
+        }
+        long key = toKey(epochDay, id);
+        int removedIndex = Arrays.binarySearch(removed, 0, removedSize, key);
+        if (removedIndex >= 0) {
+            removedSize = delete(removed, removedSize, removedIndex);
+            return;
+        }
+        int addedIndex = Arrays.binarySearch(added, 0, addedSize, key);
+        if (addedIndex < 0 && Arrays.binarySearch(keys, key) < 0) {
+            added = insert(added, addedSize++, -addedIndex - 1, key);
+            compactIfNeeded();
+        }
+    }
+
+    private void removeNow(Long id) {
+        long epochDay = epochDays.remove(id);
+        if (epochDay != IdToEpochDayMap.MISSING) {
+            removeKey(toKey(epochDay, id));
+        }
+    }
+
+    private void removeKey(long key) {
+        int addedIndex = Arrays.binarySearch(added, 0, addedSize, key);
+        if (addedIndex >= 0) {
+            addedSize = delete(added, addedSize, addedIndex);
+            return;
+        }
+        int removedIndex = Arrays.binarySearch(removed, 0, removedSize, key);
+        if (removedIndex < 0 && Arrays.binarySearch(keys, key) >= 0) {
+            removed = insert(removed, removedSize++, -removedIndex - 1, key);
+            compactIfNeeded();
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (addedSize + removedSize >= COMPACT_THRESHOLD) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        long[] merged = new long[keys.length + addedSize - removedSize];
+        int keyIndex = 0;
+        int addedIndex = 0;
+        int removedIndex = 0;
+        int count = 0;
+        while (keyIndex < keys.length || addedIndex < addedSize) {
+            if (addedIndex == addedSize
+                    || keyIndex < keys.length && keys[keyIndex] < added[addedIndex]) {
+                long key = keys[keyIndex++];
+                if (removedIndex < removedSize && removed[removedIndex] == key) {
+                    removedIndex++;
+                } else {
+                    merged[count++] = key;
+                }
+            } else {
+                merged[count++] = added[addedIndex++];
+            }
+        }
+        keys = merged;
+        addedSize = 0;
+        removedSize = 0;
+    }
+
+    private static long[] insert(long[] array, int size, int index, long value) {
+        long[] target = size == array.length ? Arrays.copyOf(array, size * 2) : array;
+        System.arraycopy(array, index, target, index + 1, size - index);
+        target[index] = value;
+        return target;
+    }
+
+    private static int delete(long[] array, int size, int index) {
+        System.arraycopy(array, index + 1, array, index, size - index - 1);
+        return size - 1;
+    }
+
+    private static int lowerBound(long[] array, int size, long key) {
+        int index = Arrays.binarySearch(array, 0, size, key);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private static long toKey(long epochDay, long id) {
+        return (epochDay + EPOCH_DAY_OFFSET) << ID_BITS | id;
+    }
+
+    /**
+     * Open addressing map from user id to epoch day of birth date.
+     */
+    private static class IdToEpochDayMap {
+        static final long MISSING = Long.MIN_VALUE;
+        private long[] ids = new long[1024];
+        private long[] days = new long[1024];
+        private int size;
+
+        long put(long id, long epochDay) {
+            if ((size + 1) * 2 > ids.length) {
+                resize();
+            }
+            int index = indexOf(id);
+            if (ids[index] == id) {
+                long old = days[index];
+                days[index] = epochDay;
+                return old;
+            }
+            ids[index] = id;
+            days[index] = epochDay;
+            size++;
+            return MISSING;
+        }
+
+        long remove(long id) {
+            int index = indexOf(id);
+            if (ids[index] != id) {
+                return MISSING;
+            }
+            long old = days[index];
+            int mask = ids.length - 1;
+            int next = (index + 1) & mask;
+            while (ids[next] != 0) {
+                int home = slot(ids[next]);
+                if (((next - home) & mask) >= ((next - index) & mask)) {
+                    ids[index] = ids[next];
+                    days[index] = days[next];
+                    index = next;
+                }
+                next = (next + 1) & mask;
+            }
+            ids[index] = 0;
+            size--;
+            return old;
+        }
+
+        private int indexOf(long id) {
+            int mask = ids.length - 1;
+            int index = slot(id);
+            while (ids[index] != 0 && ids[index] != id) {
+                index = (index + 1) & mask;
+            }
+            return index;
+        }
+
+        private int slot(long id) {
+            long hash = id * 0x9e3779b97f4a7c15L;
+            return (int) (hash >>> 32) & (ids.length - 1);
+        }
+
+        private void resize() {
+            long[] oldIds = ids;
+            long[] oldDays = days;
+            ids = new long[oldIds.length * 2];
+            days = new long[oldIds.length * 2];
+            for (int i = 0; i < oldIds.length; i++) {
+                if (oldIds[i] != 0) {
+                    int index = indexOf(oldIds[i]);
+                    ids[index] = oldIds[i];
+                    days[index] = oldDays[i];
+                }
+            }
+        }
+    }
+}
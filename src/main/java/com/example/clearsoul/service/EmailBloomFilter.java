@@ -0,0 +1,80 @@
+package com.example.clearsoul.service;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Bloom filter of lower-cased emails. It may report an email that
+ * was never added, but never misses one that was.
+ */
+public class EmailBloomFilter {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashFunctions;
+    private final long capacity;
+    private final AtomicLong size = new AtomicLong();
+
+    public EmailBloomFilter(long capacity, double falsePositiveProbability) {
+        double optimalBits = -capacity * Math.log(falsePositiveProbability)
+                / (Math.log(2) * Math.log(2));
+        this.words = new AtomicLongArray((int) Math.ceil(optimalBits / Long.SIZE));
+        this.bitCount = (long) words.length() * Long.SIZE;
+        this.hashFunctions = Math.max(1, (int) Math.round(optimalBits / capacity * Math.log(2)));
+        this.capacity = capacity;
+    }
+
+    public void put(String email) {
+        long hash = hash(email);
+        long step = step(hash);
+        for (int i = 0; i < hashFunctions; i++) {
+            setBit(Math.floorMod(hash + i * step, bitCount));
+        }
+        size.incrementAndGet();
+    }
+
+    public boolean mightContain(String email) {
+        long hash = hash(email);
+        long step = step(hash);
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(hash + i * step, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isFull() {
+        return size.get() > capacity;
+    }
+
+    private void setBit(long bit) {
+        int index = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        long word = words.get(index);
+        while ((word & mask) == 0 && !words.compareAndSet(index, word, word | mask)) {
+            word = words.get(index);
+        }
+    }
+
+    private static long hash(String email) {
+        String key = email.toLowerCase(Locale.ROOT);
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static long step(long hash) {
+        long mixed = hash ^ GOLDEN_GAMMA;
+        mixed = (mixed ^ (mixed >>> 33)) * 0xff51afd7ed558ccdL;
+        mixed = (mixed ^ (mixed >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return (mixed ^ (mixed >>> 33)) | 1;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.clearsoul.service;
+
+import com.example.clearsoul.repository.UserRepository;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Answers whether an email is taken, soft-deleted users included, as the unique
+ * index on email covers them. A Bloom filter built from the users table rejects
+ * most free emails without a query, the others are checked in the database.
+ */
+@Slf4j
+@Component
+public class EmailRegistry {
+    private static final long MIN_CAPACITY = 10_000;
+    private final UserRepository userRepository;
+    private final TransactionTemplate primaryTransaction;
+    private final double falsePositiveProbability;
+    private volatile EmailBloomFilter filter;
+    private volatile EmailBloomFilter nextFilter;
+
+    public EmailRegistry(UserRepository userRepository,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${users.email-filter.false-positive-probability:0.01}")
+                         double falsePositiveProbability) {
+        this.userRepository = userRepository;
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.falsePositiveProbability = falsePositiveProbability;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long users = primaryTransaction.execute(status ->
+                userRepository.countIncludingDeleted());
+        EmailBloomFilter newFilter = new EmailBloomFilter(
+                Math.max(users * 2, MIN_CAPACITY), falsePositiveProbability);
+        nextFilter = newFilter;
+        primaryTransaction.executeWithoutResult(status -> {
+            try (Stream<String> emails = userRepository.streamAllEmails()) {
+                emails.forEach(newFilter::put);
+            }
+        });
+        filter = newFilter;
+        nextFilter = null;
+        log.info("Email filter is built for {} users", users);
+    }
+
+    @Scheduled(fixedDelayString = "${users.email-filter.check-interval:PT1M}")
+    public void rebuildIfFull() {
+        EmailBloomFilter current = filter;
+        if (current != null && current.isFull()) {
+            rebuild();
+        }
+    }
+
+    public boolean isTaken(String email) {
+        return mightBeTaken(email) && userRepository.countByEmailIncludingDeleted(email) > 0;
+    }
+
+    public boolean isTakenByOther(String email, Long userId) {
+        return mightBeTaken(email)
+                && userRepository.countByEmailAndIdNotIncludingDeleted(email, userId) > 0;
+    }
+
+    public void add(String email) {
+        EmailBloomFilter current = filter;
+        if (current != null) {
+            current.put(email);
+        }
+        EmailBloomFilter next = nextFilter;
+        if (next != null) {
+            next.put(email);
+        }
+    }
+
+    private boolean mightBeTaken(String email) {
+        EmailBloomFilter current = filter;
+        return current == null || current.mightContain(email);
+    }
+}
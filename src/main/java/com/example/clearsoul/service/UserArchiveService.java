@@ -0,0 +1,54 @@
+package com.example.clearsoul.service;
+
+import com.example.clearsoul.repository.UserArchiveRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Moves soft-deleted users older than the retention out of the users table,
+ * one short transaction per chunk.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "users.archive.enabled", havingValue = "true")
+public class UserArchiveService {
+    private final UserArchiveRepository userArchiveRepository;
+    private final Duration retention;
+    private final int batchSize;
+    private final boolean purge;
+
+    public UserArchiveService(UserArchiveRepository userArchiveRepository,
+                              @Value("${users.archive.retention:30d}") Duration retention,
+                              @Value("${users.archive.batch-size:500}") int batchSize,
+                              @Value("${users.archive.purge:false}") boolean purge) {
+        this.userArchiveRepository = userArchiveRepository;
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.purge = purge;
+    }
+
+    @Scheduled(fixedDelayString = "${users.archive.fixed-delay:PT1H}",
+            initialDelayString = "${users.archive.initial-delay:PT1M}")
+    public int archiveDeletedUsers() {
+        LocalDateTime deletedBefore = LocalDateTime.now().minus(retention);
+        int total = 0;
+        List<Long> ids;
+        do {
+            ids = userArchiveRepository.findDeletedIds(deletedBefore, batchSize);
+            if (!ids.isEmpty()) {
+                total += purge ? userArchiveRepository.purge(ids)
+                        : userArchiveRepository.archive(ids);
+            }
+        } while (ids.size() == batchSize);
+        if (total > 0) {
+            log.info("{} {} deleted users", purge ? "Purged" : "Archived", total);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.clearsoul.service;
+
+import com.example.clearsoul.dto.UserEventDto;
+import com.example.clearsoul.repository.UserEventRepository;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Serves the outbox of user changes in id order, starting after a cursor.
+ */
+@Service
+public class UserEventService {
+    private final UserEventRepository userEventRepository;
+    private final int batchSize;
+    private final Duration pollInterval;
+
+    public UserEventService(UserEventRepository userEventRepository,
+                            @Value("${users.events.batch-size:500}") int batchSize,
+                            @Value("${users.events.poll-interval:1s}") Duration pollInterval) {
+        this.userEventRepository = userEventRepository;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+    }
+
+    /**
+     * Passes events after the given id to the consumer batch by batch. With follow
+     * set, keeps polling for new events and passes an empty batch on every idle poll,
+     * until the consumer throws or the thread is interrupted.
+     */
+    public void streamEvents(long afterId, boolean follow,
+                             Consumer<List<UserEventDto>> consumer) {
+        long cursor = afterId;
+        while (true) {
+            List<UserEventDto> events = userEventRepository.findAfter(cursor, batchSize);
+            if (!events.isEmpty()) {
+                cursor = events.get(events.size() - 1).getId();
+            }
+            if (!events.isEmpty() || follow) {
+                consumer.accept(events);
+            }
+            if (events.size() < batchSize && (!follow || !waitForEvents())) {
+                return;
+            }
+        }
+    }
+
+    private boolean waitForEvents() {
+        try {
+            Thread.sleep(pollInterval);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.clearsoul.service;
+
+import com.example.clearsoul.dto.UserBatchErrorDto;
+import com.example.clearsoul.dto.UserBatchResultDto;
+import com.example.clearsoul.dto.UserCreateDto;
+import com.example.clearsoul.dto.UserImportErrorDto;
+import com.example.clearsoul.dto.UserImportResultDto;
+import com.example.clearsoul.exception.CsvFormatException;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Imports users from CSV with a header row naming UserCreateDto fields.
+ * Rows are read one at a time and cut into chunks, up to parallelism chunks are
+ * validated and inserted at once through UserService.saveUsers, so memory use
+ * doesn't depend on the file size.
+ */
+@Service
+public class UserImportService {
+    private static final List<String> COLUMNS = List.of("email", "firstName", "lastName",
+            "birthDate", "address", "phoneNumber");
+    private static final String BYTE_ORDER_MARK = "\uFEFF";
+    private final UserService userService;
+    private final int chunkSize;
+    private final int parallelism;
+    private final int maxReportedErrors;
+    private final ExecutorService executor;
+
+    public UserImportService(UserService userService,
+                             @Value("${users.import.chunk-size:1000}") int chunkSize,
+                             @Value("${users.import.parallelism:4}") int parallelism,
+                             @Value("${users.import.max-reported-errors:1000}")
+                             int maxReportedErrors) {
+        this.userService = userService;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.maxReportedErrors = maxReportedErrors;
+        this.executor = Executors.newFixedThreadPool(parallelism);
+    }
+
+    public UserImportResultDto importUsers(InputStream inputStream) throws IOException {
+        long start = System.nanoTime();
+        CsvRecordReader reader = new CsvRecordReader(new BufferedReader(
+                new InputStreamReader(inputStream, StandardCharsets.UTF_8)));
+        Map<String, Integer> columns = readHeader(reader.readRecord());
+        ImportReport report = new ImportReport();
+        Deque<Future<ChunkResult>> pending = new ArrayDeque<>();
+        try {
+            Chunk chunk = new Chunk();
+            List<String> record;
+            while ((record = reader.readRecord()) != null) {
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue;
+                }
+                long row = ++report.rows;
+                try {
+                    chunk.add(row, toCreateDto(record, columns));
+                } catch (DateTimeParseException e) {
+                    report.addError(row, List.of(e.getMessage()));
+                }
+                if (chunk.users.size() == chunkSize) {
+                    submit(chunk, pending, report);
+                    chunk = new Chunk();
+                }
+            }
+            if (!chunk.users.isEmpty()) {
+                submit(chunk, pending, report);
+            }
+            while (!pending.isEmpty()) {
+                report.add(await(pending.poll()));
+            }
+        } finally {
+            pending.forEach(future -> future.cancel(true));
+        }
+        return report.toDto(System.nanoTime() - start);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void submit(Chunk chunk, Deque<Future<ChunkResult>> pending, ImportReport report) {
+        if (pending.size() >= parallelism) {
+            report.add(await(pending.poll()));
+        }
+        pending.add(executor.submit(
+                () -> new ChunkResult(chunk.rows, userService.saveUsers(chunk.users))));
+    }
+
+    private ChunkResult await(Future<ChunkResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import is interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Can't import users", e.getCause());
+        }
+    }
+
+    private Map<String, Integer> readHeader(List<String> header) {
+        if (header == null) {
+            throw new CsvFormatException("File is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).replace(BYTE_ORDER_MARK, "").replace("_", "").trim();
+            for (String column : COLUMNS) {
+                if (column.equalsIgnoreCase(name)) {
+                    columns.put(column, i);
+                }
+            }
+        }
+        if (!columns.keySet().containsAll(COLUMNS.subList(0, 4))) {
+            throw new CsvFormatException("Header must have columns " + COLUMNS
+                    + ", address and phoneNumber are optional");
+        }
+        return columns;
+    }
+
+    private UserCreateDto toCreateDto(List<String> record, Map<String, Integer> columns) {
+        return new UserCreateDto()
+                .setEmail(value(record, columns, "email"))
+                .setFirstName(value(record, columns, "firstName"))
+                .setLastName(value(record, columns, "lastName"))
+                .setBirthDate(toDate(value(record, columns, "birthDate")))
+                .setAddress(value(record, columns, "address"))
+                .setPhoneNumber(value(record, columns, "phoneNumber"));
+    }
+
+    private String value(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size() || record.get(index).isEmpty()) {
+            return null;
+        }
+        return record.get(index);
+    }
+
+    private LocalDate toDate(String value) {
+        return value == null ? null : LocalDate.parse(value.trim());
+    }
+
+    private static class Chunk {
+        private final List<Long> rows = new ArrayList<>();
+        private final List<UserCreateDto> users = new ArrayList<>();
+
+        void add(long row, UserCreateDto user) {
+            rows.add(row);
+            users.add(user);
+        }
+    }
+
+    private record ChunkResult(List<Long> rows, UserBatchResultDto result) {
+    }
+
+    private class ImportReport {
+        private final List<UserImportErrorDto> errors = new ArrayList<>();
+        private long rows;
+        private long created;
+        private long failed;
+
+        void add(ChunkResult chunkResult) {
+            created += chunkResult.result().getCreated();
+            for (UserBatchErrorDto error : chunkResult.result().getErrors()) {
+                addError(chunkResult.rows().get(error.getIndex()), error.getMessages());
+            }
+        }
+
+        void addError(long row, List<String> messages) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new UserImportErrorDto().setRow(row).setMessages(messages));
+            }
+        }
+
+        UserImportResultDto toDto(long elapsedNanos) {
+            errors.sort(Comparator.comparingLong(UserImportErrorDto::getRow));
+            return new UserImportResultDto()
+                    .setRows(rows)
+                    .setCreated(created)
+                    .setFailed(failed)
+                    .setErrors(errors)
+                    .setErrorsTruncated(failed > errors.size())
+                    .setElapsedMillis(elapsedNanos / 1_000_000)
+                    .setRowsPerSecond(rows * 1e9 / Math.max(elapsedNanos, 1));
+        }
+    }
+}
@@ -1,21 +1,46 @@
 package com.example.clearsoul.service;
 
+import com.example.clearsoul.dto.UserBatchResultDto;
+import com.example.clearsoul.dto.UserBulkDeleteDto;
+import com.example.clearsoul.dto.UserBulkDeleteResultDto;
 import com.example.clearsoul.dto.UserCreateDto;
 import com.example.clearsoul.dto.UserDto;
+import com.example.clearsoul.dto.UserPageDto;
+import com.example.clearsoul.dto.UserStatsDto;
 import com.example.clearsoul.dto.UserUpdateDto;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
+import org.springframework.data.domain.Pageable;
 
 public interface UserService {
     UserDto saveUser(UserCreateDto requestDto);
 
+    UserBatchResultDto saveUsers(List<UserCreateDto> requestDtos);
+
     List<UserDto> getAllUsers();
 
+    UserPageDto getUsers(Long afterId, int limit);
+
+    void exportUsers(Consumer<UserDto> consumer);
+
     UserDto getById(Long id);
 
+    Long getVersion(Long id);
+
     UserDto updateUser(Long id, UserUpdateDto updateDto);
 
+    void patchUser(Long id, UserUpdateDto updateDto);
+
     void deleteUser(Long id);
 
-    List<UserDto> searchUsersByDateRange(LocalDate fromDate, LocalDate toDate);
+    UserBulkDeleteResultDto deleteUsers(UserBulkDeleteDto deleteDto);
+
+    List<UserDto> searchUsersByDateRange(LocalDate fromDate, LocalDate toDate, Pageable pageable);
+
+    List<UserDto> getUpcomingBirthdays(LocalDate fromDate, int days, Pageable pageable);
+
+    List<UserDto> lookupUsers(String query, Pageable pageable);
+
+    UserStatsDto getStats();
 }
@@ -1,71 +1,455 @@
 package com.example.clearsoul.service;
 
+import com.example.clearsoul.config.CacheConfig;
+import com.example.clearsoul.config.ReadWriteRoutingDataSource;
+import com.example.clearsoul.dto.UserBatchErrorDto;
+import com.example.clearsoul.dto.UserBatchResultDto;
+import com.example.clearsoul.dto.UserBulkDeleteDto;
+import com.example.clearsoul.dto.UserBulkDeleteResultDto;
 import com.example.clearsoul.dto.UserCreateDto;
 import com.example.clearsoul.dto.UserDto;
+import com.example.clearsoul.dto.UserPageDto;
+import com.example.clearsoul.dto.UserStatsDto;
 import com.example.clearsoul.dto.UserUpdateDto;
 import com.example.clearsoul.exception.DateRangeException;
+import com.example.clearsoul.exception.DuplicateEmailException;
 import com.example.clearsoul.exception.EntityNotFoundException;
 import com.example.clearsoul.exception.ForbiddenAgeException;
 import com.example.clearsoul.mapper.UserMapper;
 import com.example.clearsoul.model.User;
+import com.example.clearsoul.model.UserEventType;
+import com.example.clearsoul.repository.UserBatchRepository;
+import com.example.clearsoul.repository.UserDeleteRepository;
+import com.example.clearsoul.repository.UserEventRepository;
 import com.example.clearsoul.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import java.time.LocalDate;
 import java.time.Period;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @RequiredArgsConstructor
 @Service
+@Timed("users.service")
 public class UserServiceImpl implements UserService {
     private static final int MIN_AGE = 18;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int INSERT_BATCH_SIZE = 500;
+    private static final int DELETE_BATCH_SIZE = 1000;
+    private static final int FIRST_MONTH_DAY = 101;
+    private static final int LAST_MONTH_DAY = 1231;
+    private static final int DAYS_IN_YEAR = 365;
+    private static final Sort BIRTH_DATE_ORDER = Sort.by("birthDate", "id");
+    private static final String[] AGE_BUCKETS =
+            {"18-24", "25-34", "35-44", "45-54", "55-64", "65+"};
     private final UserRepository userRepository;
+    private final UserBatchRepository userBatchRepository;
+    private final UserDeleteRepository userDeleteRepository;
+    private final UserEventRepository userEventRepository;
     private final UserMapper userMapper;
+    private final Validator validator;
+    private final EmailRegistry emailRegistry;
+    private final ObjectProvider<BirthDateIndex> birthDateIndex;
+    private final ObjectProvider<UserUpdateCoalescer> updateCoalescer;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
 
     @Override
+    @Transactional
     public UserDto saveUser(UserCreateDto requestDto) {
         validateAge(requestDto.getBirthDate());
+        if (emailRegistry.isTaken(requestDto.getEmail())) {
+            throw emailTaken(requestDto.getEmail());
+        }
         User user = userMapper.toModel(requestDto);
         user = userRepository.save(user);
+        userEventRepository.insert(UserEventType.CREATED, user.getId());
+        emailRegistry.add(user.getEmail());
+        indexBirthDate(user.getId(), user.getBirthDate());
         return userMapper.toDto(user);
     }
 
     @Override
+    public UserBatchResultDto saveUsers(List<UserCreateDto> requestDtos) {
+        List<UserBatchErrorDto> errors = new ArrayList<>();
+        List<User> chunk = new ArrayList<>(INSERT_BATCH_SIZE);
+        List<Integer> chunkIndexes = new ArrayList<>(INSERT_BATCH_SIZE);
+        int created = 0;
+        for (int i = 0; i < requestDtos.size(); i++) {
+            List<String> messages = validate(requestDtos.get(i));
+            if (!messages.isEmpty()) {
+                errors.add(new UserBatchErrorDto().setIndex(i).setMessages(messages));
+                continue;
+            }
+            chunk.add(userMapper.toModel(requestDtos.get(i)));
+            chunkIndexes.add(i);
+            if (chunk.size() == INSERT_BATCH_SIZE) {
+                created += insertChunk(chunk, chunkIndexes, errors);
+                chunk.clear();
+                chunkIndexes.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            created += insertChunk(chunk, chunkIndexes, errors);
+        }
+        errors.sort(Comparator.comparingInt(UserBatchErrorDto::getIndex));
+        return new UserBatchResultDto().setCreated(created).setErrors(errors);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<UserDto> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(userMapper::toDto).toList();
+        return userRepository.findAllDtos();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserPageDto getUsers(Long afterId, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        List<UserDto> users = userRepository.findDtosByIdGreaterThan(
+                afterId, PageRequest.ofSize(pageSize + 1));
+        if (users.size() <= pageSize) {
+            return new UserPageDto().setContent(users);
+        }
+        List<UserDto> content = users.subList(0, pageSize);
+        return new UserPageDto()
+                .setContent(content)
+                .setNextCursor(content.get(pageSize - 1).getId());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportUsers(Consumer<UserDto> consumer) {
+        try (Stream<UserDto> users = userRepository.streamAllDtos()) {
+            users.forEach(consumer);
+        }
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.USERS_CACHE)
+    @Transactional(readOnly = true)
     public UserDto getById(Long id) {
-        return userMapper.toDto(userRepository.findById(id).orElseThrow(() ->
-                new EntityNotFoundException("Can't find user with id " + id)));
+        // read on the primary so that clients see their own writes
+        return ReadWriteRoutingDataSource.readFromPrimary(() -> userRepository.findDtoById(id))
+                .orElseThrow(() -> new EntityNotFoundException("Can't find user with id " + id));
+    }
+
+    /**
+     * Answers from the cached user when there is one: updates put the new user in
+     * the cache, patches and deletes evict it.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Long getVersion(Long id) {
+        Cache usersCache = cacheManager.getCache(CacheConfig.USERS_CACHE);
+        UserDto cached = usersCache == null ? null : usersCache.get(id, UserDto.class);
+        if (cached != null) {
+            return cached.getVersion();
+        }
+        return ReadWriteRoutingDataSource.readFromPrimary(() -> userRepository.findVersionById(id))
+                .orElseThrow(() -> new EntityNotFoundException("Can't find user with id " + id));
     }
 
+    /**
+     * Not transactional itself: merged updates wait for the write in progress of the
+     * same user, and must not hold a transaction while they wait.
+     */
     @Override
+    @CachePut(cacheNames = CacheConfig.USERS_CACHE, key = "#id")
     public UserDto updateUser(Long id, UserUpdateDto updateDto) {
-        User user = userRepository.findById(id).orElseThrow(() ->
-                new EntityNotFoundException("Can't find user with id " + id));
-        correctUser(user, updateDto);
-        return userMapper.toDto(userRepository.save(user));
+        UserUpdateCoalescer coalescer = updateCoalescer.getIfAvailable();
+        if (coalescer == null) {
+            return transactionTemplate.execute(status -> applyUpdate(id, updateDto));
+        }
+        if (updateDto.getBirthDate() != null) {
+            validateAge(updateDto.getBirthDate());
+        }
+        return coalescer.update(id, updateDto, this::applyUpdate);
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#id")
+    public void patchUser(Long id, UserUpdateDto updateDto) {
+        if (updateDto.getBirthDate() != null) {
+            validateAge(updateDto.getBirthDate());
+        }
+        if (updateDto.getEmail() != null
+                && emailRegistry.isTakenByOther(updateDto.getEmail(), id)) {
+            throw emailTaken(updateDto.getEmail());
+        }
+        int updated = userRepository.updateNonNullFields(id, updateDto.getEmail(),
+                updateDto.getFirstName(), updateDto.getLastName(), updateDto.getBirthDate(),
+                updateDto.getAddress(), updateDto.getPhoneNumber());
+        if (updated == 0) {
+            throw new EntityNotFoundException("Can't find user with id " + id);
+        }
+        userEventRepository.insert(UserEventType.UPDATED, id);
+        if (updateDto.getEmail() != null) {
+            emailRegistry.add(updateDto.getEmail());
+        }
+        if (updateDto.getBirthDate() != null) {
+            indexBirthDate(id, updateDto.getBirthDate());
+        }
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USERS_CACHE)
     public void deleteUser(Long id) {
-        userRepository.deleteById(id);
+        removeFromIndex(userDeleteRepository.softDeleteByIds(List.of(id)));
     }
 
     @Override
-    public List<UserDto> searchUsersByDateRange(LocalDate fromDate, LocalDate toDate) {
+    @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, allEntries = true)
+    public UserBulkDeleteResultDto deleteUsers(UserBulkDeleteDto deleteDto) {
+        List<Long> ids = deleteDto.getIds();
+        int deleted = 0;
+        if (ids != null && !ids.isEmpty()) {
+            for (int from = 0; from < ids.size(); from += DELETE_BATCH_SIZE) {
+                deleted += removeFromIndex(userDeleteRepository.softDeleteByIds(
+                        ids.subList(from, Math.min(from + DELETE_BATCH_SIZE, ids.size()))));
+            }
+            return new UserBulkDeleteResultDto().setDeleted(deleted);
+        }
+        if (deleteDto.getFromDate().isAfter(deleteDto.getToDate())) {
+            throw new DateRangeException("The second date is after the first. Change it!");
+        }
+        int batchDeleted;
+        do {
+            batchDeleted = removeFromIndex(userDeleteRepository.softDeleteByBirthDate(
+                    deleteDto.getFromDate(), deleteDto.getToDate(), DELETE_BATCH_SIZE));
+            deleted += batchDeleted;
+        } while (batchDeleted == DELETE_BATCH_SIZE);
+        return new UserBulkDeleteResultDto().setDeleted(deleted);
+    }
+
+    @Override
+    public List<UserDto> searchUsersByDateRange(LocalDate fromDate, LocalDate toDate,
+                                                Pageable pageable) {
         if (fromDate.isAfter(toDate)) {
             throw new DateRangeException("The second date is after the first. Change it!");
         }
 
-        return userRepository.findByBirthDateBetween(fromDate, toDate).stream()
-                .map(userMapper::toDto)
+        BirthDateIndex index = birthDateIndex.getIfAvailable();
+        if (index != null && index.isReady() && isBirthDateOrder(pageable.getSort())) {
+            long[] ids = index.findIds(fromDate, toDate, pageable.getOffset(),
+                    pageable.getPageSize());
+            // the index follows the primary, a lagging replica would drop the newest ids
+            return transactionTemplate.execute(status -> findDtosInOrder(ids));
+        }
+        return userRepository.findDtosByBirthDateBetween(fromDate, toDate, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserDto> getUpcomingBirthdays(LocalDate fromDate, int days, Pageable pageable) {
+        if (days < 0) {
+            throw new DateRangeException("Number of days must not be negative");
+        }
+        Pageable page = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        int fromMonthDay = toMonthDay(fromDate);
+        if (days >= DAYS_IN_YEAR) {
+            return findBirthdaysAcrossNewYear(fromMonthDay, fromMonthDay - 1, page);
+        }
+        int toMonthDay = toMonthDay(fromDate.plusDays(days));
+        if (fromMonthDay <= toMonthDay) {
+            return userRepository.findDtosByBirthMonthDayBetween(fromMonthDay, toMonthDay, page);
+        }
+        return findBirthdaysAcrossNewYear(fromMonthDay, toMonthDay, page);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserDto> lookupUsers(String query, Pageable pageable) {
+        String pattern = "%" + query.toLowerCase(Locale.ROOT)
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_") + "%";
+        return userRepository.findDtosByLookupPattern(pattern,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.USER_STATS_CACHE)
+    @Transactional(readOnly = true)
+    public UserStatsDto getStats() {
+        LocalDate today = LocalDate.now();
+        Object[] counts = userRepository.countByAgeBuckets(today.minusYears(25),
+                today.minusYears(35), today.minusYears(45), today.minusYears(55),
+                today.minusYears(65)).get(0);
+        Map<String, Long> ageBuckets = new LinkedHashMap<>();
+        for (int i = 0; i < AGE_BUCKETS.length; i++) {
+            ageBuckets.put(AGE_BUCKETS[i], ((Number) counts[i + 1]).longValue());
+        }
+        Map<Integer, Long> birthYears = new LinkedHashMap<>();
+        for (Object[] row : userRepository.countByBirthYear()) {
+            birthYears.put(((Number) row[0]).intValue(), ((Number) row[1]).longValue());
+        }
+        return new UserStatsDto()
+                .setTotal(((Number) counts[0]).longValue())
+                .setAgeBuckets(ageBuckets)
+                .setBirthYears(birthYears);
+    }
+
+    private boolean isBirthDateOrder(Sort sort) {
+        return sort.isUnsorted() || sort.equals(BIRTH_DATE_ORDER)
+                || sort.equals(Sort.by("birthDate"));
+    }
+
+    private List<UserDto> findDtosInOrder(long[] ids) {
+        if (ids.length == 0) {
+            return List.of();
+        }
+        List<Long> idList = Arrays.stream(ids).boxed().toList();
+        Map<Long, UserDto> users = userRepository.findDtosByIdIn(idList).stream()
+                .collect(Collectors.toMap(UserDto::getId, Function.identity()));
+        return idList.stream()
+                .map(users::get)
+                .filter(Objects::nonNull)
                 .toList();
     }
 
+    private UserDto applyUpdate(Long id, UserUpdateDto updateDto) {
+        User user = userRepository.findById(id).orElseThrow(() ->
+                new EntityNotFoundException("Can't find user with id " + id));
+        if (updateDto.getEmail() != null && !updateDto.getEmail().equalsIgnoreCase(user.getEmail())
+                && emailRegistry.isTakenByOther(updateDto.getEmail(), id)) {
+            throw emailTaken(updateDto.getEmail());
+        }
+        correctUser(user, updateDto);
+        // flushed so that the returned and cached user carries the new version and timestamp
+        user = userRepository.saveAndFlush(user);
+        userEventRepository.insert(UserEventType.UPDATED, id);
+        emailRegistry.add(user.getEmail());
+        if (updateDto.getBirthDate() != null) {
+            indexBirthDate(id, updateDto.getBirthDate());
+        }
+        return userMapper.toDto(user);
+    }
+
+    /**
+     * Pages through birthdays from the given month day to the end of the year, then from
+     * the start of the year to the other month day, as two range queries on the index.
+     */
+    private List<UserDto> findBirthdaysAcrossNewYear(int fromMonthDay, int toMonthDay,
+                                                     Pageable page) {
+        int pageSize = page.getPageSize();
+        List<UserDto> users = new ArrayList<>(userRepository.findDtosByBirthMonthDayBetween(
+                fromMonthDay, LAST_MONTH_DAY, page));
+        if (users.size() == pageSize) {
+            return users;
+        }
+        long skip = users.isEmpty() ? Math.max(page.getOffset()
+                - userRepository.countByBirthMonthDayBetween(fromMonthDay, LAST_MONTH_DAY), 0) : 0;
+        int afterNewYearPage = (int) (skip / pageSize);
+        int skipOnPage = (int) (skip % pageSize);
+        List<UserDto> afterNewYear = userRepository.findDtosByBirthMonthDayBetween(
+                FIRST_MONTH_DAY, toMonthDay, PageRequest.of(afterNewYearPage, pageSize));
+        List<UserDto> candidates = new ArrayList<>(afterNewYear.subList(
+                Math.min(skipOnPage, afterNewYear.size()), afterNewYear.size()));
+        if (skipOnPage > 0 && afterNewYear.size() == pageSize) {
+            candidates.addAll(userRepository.findDtosByBirthMonthDayBetween(FIRST_MONTH_DAY,
+                    toMonthDay, PageRequest.of(afterNewYearPage + 1, pageSize)));
+        }
+        users.addAll(candidates.subList(0,
+                Math.min(pageSize - users.size(), candidates.size())));
+        return users;
+    }
+
+    private void indexBirthDate(Long id, LocalDate birthDate) {
+        birthDateIndex.ifAvailable(index -> index.put(id, birthDate));
+    }
+
+    private int removeFromIndex(List<Long> deletedIds) {
+        birthDateIndex.ifAvailable(index -> deletedIds.forEach(index::remove));
+        return deletedIds.size();
+    }
+
+    private int toMonthDay(LocalDate date) {
+        return date.getMonthValue() * 100 + date.getDayOfMonth();
+    }
+
+    private List<String> validate(UserCreateDto requestDto) {
+        if (requestDto == null) {
+            return List.of("User must not be null");
+        }
+        List<String> messages = new ArrayList<>();
+        for (ConstraintViolation<UserCreateDto> violation : validator.validate(requestDto)) {
+            messages.add(violation.getPropertyPath() + " " + violation.getMessage());
+        }
+        if (messages.isEmpty()) {
+            try {
+                validateAge(requestDto.getBirthDate());
+            } catch (ForbiddenAgeException e) {
+                messages.add(e.getMessage());
+            }
+        }
+        if (messages.isEmpty() && emailRegistry.isTaken(requestDto.getEmail())) {
+            messages.add(emailTaken(requestDto.getEmail()).getMessage());
+        }
+        return messages;
+    }
+
+    private int insertChunk(List<User> users, List<Integer> indexes,
+                            List<UserBatchErrorDto> errors) {
+        try {
+            userBatchRepository.insertAll(users);
+            users.forEach(user -> {
+                emailRegistry.add(user.getEmail());
+                indexBirthDate(user.getId(), user.getBirthDate());
+            });
+            return users.size();
+        } catch (DataIntegrityViolationException e) {
+            int created = 0;
+            for (int i = 0; i < users.size(); i++) {
+                try {
+                    userBatchRepository.insertAll(List.of(users.get(i)));
+                    emailRegistry.add(users.get(i).getEmail());
+                    indexBirthDate(users.get(i).getId(), users.get(i).getBirthDate());
+                    created++;
+                } catch (DataIntegrityViolationException rowException) {
+                    errors.add(new UserBatchErrorDto()
+                            .setIndex(indexes.get(i))
+                            .setMessages(List.of("Can't save user with email "
+                                    + users.get(i).getEmail() + ": "
+                                    + rowException.getMostSpecificCause().getMessage())));
+                }
+            }
+            return created;
+        }
+    }
+
+    private DuplicateEmailException emailTaken(String email) {
+        return new DuplicateEmailException("User with email " + email + " already exists");
+    }
+
     private void validateAge(LocalDate birthDate) {
         int userYears = Period.between(birthDate, LocalDate.now()).getYears();
         if (userYears < MIN_AGE) {
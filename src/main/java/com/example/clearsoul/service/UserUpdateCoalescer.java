@@ -0,0 +1,122 @@
+package com.example.clearsoul.service;
+
+import com.example.clearsoul.dto.UserDto;
+import com.example.clearsoul.dto.UserUpdateDto;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiFunction;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Merges updates of the same user that arrive while a write of that user is in
+ * progress into one write. A lone update is written at once in its own transaction.
+ * Updates that arrive meanwhile are merged into the next write, which the first of
+ * them starts as soon as the current one ends, and every caller of a write gets the
+ * same result or exception. Fields are merged last writer wins: a non-null field of
+ * a later update replaces the value of an earlier one, null fields keep what earlier
+ * updates set.
+ */
+@Component
+@ConditionalOnProperty(name = "users.update-coalescing.enabled", havingValue = "true")
+public class UserUpdateCoalescer {
+    private final ConcurrentMap<Long, UserWrites> writes = new ConcurrentHashMap<>();
+    private final TransactionTemplate transactionTemplate;
+
+    public UserUpdateCoalescer(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public UserDto update(Long id, UserUpdateDto updateDto,
+                          BiFunction<Long, UserUpdateDto, UserDto> writer) {
+        PendingUpdate own = new PendingUpdate();
+        writes.compute(id, (key, current) -> {
+            if (current == null) {
+                current = new UserWrites();
+                current.running = own;
+                own.joined = own;
+            } else if (current.next == null) {
+                current.next = own;
+                own.previous = current.running;
+                own.joined = own;
+            } else {
+                own.joined = current.next;
+            }
+            merge(own.joined.changes, updateDto);
+            return current;
+        });
+        if (own.joined == own) {
+            write(id, own, writer);
+        }
+        try {
+            return own.joined.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void write(Long id, PendingUpdate update,
+                       BiFunction<Long, UserUpdateDto, UserDto> writer) {
+        if (update.previous != null) {
+            update.previous.result.exceptionally(e -> null).join();
+            writes.computeIfPresent(id, (key, current) -> {
+                current.running = update;
+                current.next = null;
+                return current;
+            });
+        }
+        UserDto result = null;
+        Throwable failure = null;
+        try {
+            result = transactionTemplate.execute(status -> writer.apply(id, update.changes));
+        } catch (RuntimeException | Error e) {
+            failure = e;
+        }
+        writes.computeIfPresent(id, (key, current) -> current.next == null ? null : current);
+        if (failure == null) {
+            update.result.complete(result);
+        } else {
+            update.result.completeExceptionally(failure);
+        }
+    }
+
+    private static void merge(UserUpdateDto changes, UserUpdateDto updateDto) {
+        if (updateDto.getEmail() != null) {
+            changes.setEmail(updateDto.getEmail());
+        }
+        if (updateDto.getFirstName() != null) {
+            changes.setFirstName(updateDto.getFirstName());
+        }
+        if (updateDto.getLastName() != null) {
+            changes.setLastName(updateDto.getLastName());
+        }
+        if (updateDto.getBirthDate() != null) {
+            changes.setBirthDate(updateDto.getBirthDate());
+        }
+        if (updateDto.getAddress() != null) {
+            changes.setAddress(updateDto.getAddress());
+        }
+        if (updateDto.getPhoneNumber() != null) {
+            changes.setPhoneNumber(updateDto.getPhoneNumber());
+        }
+    }
+
+    private static class UserWrites {
+        private PendingUpdate running;
+        private PendingUpdate next;
+    }
+
+    private static class PendingUpdate {
+        private final UserUpdateDto changes = new UserUpdateDto();
+        private final CompletableFuture<UserDto> result = new CompletableFuture<>();
+        private PendingUpdate previous;
+        private PendingUpdate joined;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.clearsoul.benchmark;
+
+import com.example.clearsoul.exception.ForbiddenAgeException;
+import com.example.clearsoul.service.UserServiceImpl;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of UserServiceImpl.validateAge for an adult and for an underage user,
+ * compared with checking the birth date against a cut-off date. The private
+ * method is called through a constant method handle, which the JIT inlines
+ * like a direct call; the rule does not touch any of the service dependencies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AgeValidationBenchmark {
+    private static final int MIN_AGE = 18;
+    private static final MethodHandle VALIDATE_AGE = findValidateAge();
+    private final UserServiceImpl userService = new UserServiceImpl(
+            null, null, null, null, null, null, null, null, null, null, null);
+    private final LocalDate adultBirthDate = LocalDate.of(1809, 1, 19);
+    private final LocalDate underageBirthDate = LocalDate.now().minusYears(MIN_AGE - 1);
+
+    @Benchmark
+    public void validateAge() throws Throwable {
+        VALIDATE_AGE.invokeExact(userService, adultBirthDate);
+    }
+
+    @Benchmark
+    public boolean validateAgeForbidden() throws Throwable {
+        try {
+            VALIDATE_AGE.invokeExact(userService, underageBirthDate);
+            return false;
+        } catch (ForbiddenAgeException e) {
+            return true;
+        }
+    }
+
+    @Benchmark
+    public boolean cutOffDate() {
+        return adultBirthDate.isAfter(LocalDate.now().minusYears(MIN_AGE));
+    }
+
+    private static MethodHandle findValidateAge() {
+        try {
+            return MethodHandles.privateLookupIn(UserServiceImpl.class, MethodHandles.lookup())
+                    .findVirtual(UserServiceImpl.class, "validateAge",
+                            MethodType.methodType(void.class, LocalDate.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Can't find UserServiceImpl.validateAge", e);
+        }
+    }
+}
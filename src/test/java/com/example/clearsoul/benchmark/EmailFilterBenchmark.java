@@ -0,0 +1,144 @@
+package com.example.clearsoul.benchmark;
+
+import com.example.clearsoul.config.CustomMySqlContainer;
+import com.example.clearsoul.service.EmailBloomFilter;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import liquibase.integration.spring.SpringLiquibase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Email lookups in the Bloom filter of EmailRegistry for a storm of duplicate
+ * sign-ups and for new emails, next to an exact in-memory set of the same size.
+ * The registry benchmarks add the count query EmailRegistry runs when the filter
+ * says maybe, against a users table of the same size in a MySQL container.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EmailFilterBenchmark {
+    @Param({"100000", "1000000"})
+    public int size;
+    private EmailBloomFilter filter;
+    private Set<String> emails;
+
+    @Setup
+    public void setUp() {
+        filter = new EmailBloomFilter(size * 2L, 0.01);
+        emails = new HashSet<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            filter.put(email(i));
+            emails.add(email(i));
+        }
+    }
+
+    @Benchmark
+    public boolean filterDuplicateEmail() {
+        return filter.mightContain(email(ThreadLocalRandom.current().nextInt(size)));
+    }
+
+    @Benchmark
+    public boolean filterNewEmail() {
+        return filter.mightContain(email(size + ThreadLocalRandom.current().nextInt(size)));
+    }
+
+    @Benchmark
+    public boolean setNewEmail() {
+        return emails.contains(email(size + ThreadLocalRandom.current().nextInt(size)));
+    }
+
+    @Benchmark
+    public boolean registryDuplicateEmail(Database database) throws SQLException {
+        return database.isTaken(filter, email(ThreadLocalRandom.current().nextInt(size)));
+    }
+
+    @Benchmark
+    public boolean registryNewEmail(Database database) throws SQLException {
+        return database.isTaken(filter,
+                email(size + ThreadLocalRandom.current().nextInt(size)));
+    }
+
+    private static String email(int number) {
+        return "user" + number + "@mail.com";
+    }
+
+    @State(Scope.Benchmark)
+    public static class Database {
+        private static final String INSERT_USER = "INSERT INTO users "
+                + "(email, first_name, last_name, birth_date) VALUES (?, ?, ?, ?)";
+        private static final String COUNT_BY_EMAIL =
+                "SELECT COUNT(*) FROM users WHERE email = ?";
+        private static final int INSERT_BATCH_SIZE = 10_000;
+        private Connection connection;
+        private PreparedStatement countByEmail;
+
+        @Setup
+        public void setUp(EmailFilterBenchmark benchmark) throws Exception {
+            CustomMySqlContainer container = CustomMySqlContainer.getInstance();
+            container.start();
+            DataSource dataSource = new DriverManagerDataSource(
+                    container.getJdbcUrl() + "?rewriteBatchedStatements=true",
+                    container.getUsername(), container.getPassword());
+            SpringLiquibase liquibase = new SpringLiquibase();
+            liquibase.setDataSource(dataSource);
+            liquibase.setChangeLog("classpath:db/changelog/db.changelog-master.yaml");
+            liquibase.setResourceLoader(new DefaultResourceLoader());
+            liquibase.afterPropertiesSet();
+
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.update("DELETE FROM users");
+            List<Object[]> users = new ArrayList<>(INSERT_BATCH_SIZE);
+            for (int i = 0; i < benchmark.size; i++) {
+                users.add(new Object[] {email(i), "Arthur", "Pym", LocalDate.of(1838, 6, 16)});
+                if (users.size() == INSERT_BATCH_SIZE || i == benchmark.size - 1) {
+                    jdbcTemplate.batchUpdate(INSERT_USER, users);
+                    users.clear();
+                }
+            }
+            connection = dataSource.getConnection();
+            countByEmail = connection.prepareStatement(COUNT_BY_EMAIL);
+        }
+
+        @TearDown
+        public void tearDown() throws SQLException {
+            connection.close();
+        }
+
+        private boolean isTaken(EmailBloomFilter filter, String email) throws SQLException {
+            if (!filter.mightContain(email)) {
+                return false;
+            }
+            countByEmail.setString(1, email);
+            try (ResultSet resultSet = countByEmail.executeQuery()) {
+                return resultSet.next() && resultSet.getLong(1) > 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.clearsoul.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to serve a burst of blocking requests with Tomcat's default pool of
+ * 200 platform threads versus a virtual thread per request. A request is modelled
+ * as a sleep for slow I/O and a sleep while holding one of 20 semaphore permits
+ * for a query. It shows the scheduling effect only: no HTTP, JDBC or
+ * ConnectionLimitingDataSource is involved, measure the endpoints with UserLoadTest.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ThreadModeBenchmark {
+    private static final int PLATFORM_THREADS = 200;
+    private static final int POOL_SIZE = 20;
+    private static final long IO_MILLIS = 20;
+    private static final long QUERY_MILLIS = 1;
+    @Param({"platform", "virtual"})
+    public String mode;
+    @Param({"1000", "5000"})
+    public int requests;
+    private ExecutorService executor;
+    private Semaphore connections;
+
+    @Setup
+    public void setUp() {
+        executor = "virtual".equals(mode) ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(PLATFORM_THREADS);
+        connections = new Semaphore(POOL_SIZE, true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int serveBurst() throws Exception {
+        List<Future<?>> responses = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            responses.add(executor.submit(this::handleRequest));
+        }
+        for (Future<?> response : responses) {
+            response.get();
+        }
+        return responses.size();
+    }
+
+    private Void handleRequest() throws InterruptedException {
+        Thread.sleep(IO_MILLIS);
+        connections.acquire();
+        try {
+            Thread.sleep(QUERY_MILLIS);
+        } finally {
+            connections.release();
+        }
+        return null;
+    }
+}
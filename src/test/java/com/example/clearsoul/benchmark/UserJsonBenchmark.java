@@ -0,0 +1,64 @@
+package com.example.clearsoul.benchmark;
+
+import com.example.clearsoul.dto.UserDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class UserJsonBenchmark {
+    @Param({"10", "1000", "100000"})
+    public int size;
+    private ObjectMapper objectMapper;
+    private List<UserDto> users;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        users = createUsers(size);
+    }
+
+    @Benchmark
+    public byte[] serializeUsers() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(users);
+    }
+
+    static List<UserDto> createUsers(int size) {
+        List<UserDto> users = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            users.add(new UserDto()
+                    .setId(id)
+                    .setEmail("user" + id + "@mail.com")
+                    .setFirstName("Edgar")
+                    .setLastName("Poe")
+                    .setBirthDate(LocalDate.of(1809, 1, 19).plusDays(id % 36500))
+                    .setAddress("Baltimore")
+                    .setPhoneNumber("+380567891357"));
+        }
+        return users;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.clearsoul.benchmark;
+
+import com.example.clearsoul.dto.UserCreateDto;
+import com.example.clearsoul.dto.UserDto;
+import com.example.clearsoul.mapper.UserMapper;
+import com.example.clearsoul.mapper.impl.UserMapperImpl;
+import com.example.clearsoul.model.User;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class UserMapperBenchmark {
+    private final UserMapper userMapper = new UserMapperImpl();
+    private final UserCreateDto createDto = new UserCreateDto()
+            .setEmail("raven@mail.com")
+            .setFirstName("Edgar")
+            .setLastName("Poe")
+            .setBirthDate(LocalDate.of(1809, 1, 19))
+            .setAddress("Baltimore")
+            .setPhoneNumber("+380567891357");
+    private final User user = userMapper.toModel(createDto).setId(2L);
+
+    @Benchmark
+    public User toModel() {
+        return userMapper.toModel(createDto);
+    }
+
+    @Benchmark
+    public UserDto toDto() {
+        return userMapper.toDto(user);
+    }
+}
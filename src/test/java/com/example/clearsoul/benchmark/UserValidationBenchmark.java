@@ -0,0 +1,74 @@
+package com.example.clearsoul.benchmark;
+
+import com.example.clearsoul.dto.UserCreateDto;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class UserValidationBenchmark {
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private UserCreateDto validDto;
+    private UserCreateDto invalidEmailDto;
+    private UserCreateDto invalidPhoneDto;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        validDto = createUserCreateDto();
+        invalidEmailDto = createUserCreateDto().setEmail("wrong@email@com");
+        invalidPhoneDto = createUserCreateDto().setPhoneNumber("+38061A326598");
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserCreateDto>> validUser() {
+        return validator.validate(validDto);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserCreateDto>> invalidEmail() {
+        return validator.validate(invalidEmailDto);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserCreateDto>> invalidPhoneNumber() {
+        return validator.validate(invalidPhoneDto);
+    }
+
+    private static UserCreateDto createUserCreateDto() {
+        return new UserCreateDto()
+                .setEmail("raven@mail.com")
+                .setFirstName("Edgar")
+                .setLastName("Poe")
+                .setBirthDate(LocalDate.of(1809, 1, 19))
+                .setAddress("Baltimore")
+                .setPhoneNumber("+380567891357");
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.clearsoul.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import javax.sql.DataSource;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ConnectionLimitingDataSourceTest {
+    private static final Duration ACQUIRE_TIMEOUT = Duration.ofMillis(100);
+    @Mock
+    private DataSource targetDataSource;
+    private ConnectionLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ConnectionLimitingDataSource(targetDataSource, 1, ACQUIRE_TIMEOUT);
+    }
+
+    @Test
+    @DisplayName("Wait for a connection times out when all permits are taken")
+    public void getConnection_AllPermitsTaken_ThrowExceptionAfterTimeout() throws Exception {
+        when(targetDataSource.getConnection()).thenReturn(Mockito.mock(Connection.class));
+        dataSource.getConnection();
+
+        long start = System.nanoTime();
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(ACQUIRE_TIMEOUT) >= 0);
+    }
+
+    @Test
+    @DisplayName("Closing a connection releases its permit once")
+    public void close_ClosedTwice_ReleasePermitOnce() throws Exception {
+        when(targetDataSource.getConnection()).thenAnswer(invocation ->
+                Mockito.mock(Connection.class));
+        Connection first = dataSource.getConnection();
+        first.close();
+        first.close();
+
+        assertNotNull(dataSource.getConnection());
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+    }
+
+    @Test
+    @DisplayName("Failed connection from the pool gives its permit back")
+    public void getConnection_TargetFails_ReleasePermit() throws Exception {
+        when(targetDataSource.getConnection())
+                .thenThrow(new SQLException("Pool is closed"))
+                .thenReturn(Mockito.mock(Connection.class));
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertNotNull(dataSource.getConnection());
+    }
+
+    @Test
+    @DisplayName("Connection equals only itself without calling the pooled connection")
+    public void equals_SameAndOtherConnection_CompareProxies() throws Exception {
+        Connection target = Mockito.mock(Connection.class);
+        when(targetDataSource.getConnection()).thenReturn(target);
+        Connection connection = dataSource.getConnection();
+
+        assertEquals(connection, connection);
+        assertNotEquals(connection, target);
+        assertEquals(connection.hashCode(), connection.hashCode());
+        Mockito.verifyNoInteractions(target);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.clearsoul.config;
+
+import com.example.clearsoul.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.search.Search;
+import javax.sql.DataSource;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+@SpringBootTest
+class MetricsConfigTest {
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        runScript("database/users/add-three-users-to-db.sql");
+    }
+
+    @AfterEach
+    void tearDown() {
+        runScript("database/users/clear-users-table.sql");
+    }
+
+    @Test
+    @DisplayName("Service call is timed and its Hibernate session is recorded in the registry")
+    public void getUsers_ServiceCall_RecordServiceAndSessionMetrics() {
+        long sessions = count(meterRegistry.find("hibernate.session.statements"));
+        long calls = count(meterRegistry.find("users.service").tag("method", "getUsers"));
+
+        assertEquals(3, userService.getUsers(0L, 10).getContent().size());
+
+        assertTrue(count(meterRegistry.find("hibernate.session.statements")) > sessions);
+        assertTrue(meterRegistry.get("hibernate.session.statements").summary().totalAmount() > 0);
+        assertNotNull(meterRegistry.find("hibernate.session.flushes").summary());
+        assertEquals(calls + 1,
+                count(meterRegistry.find("users.service").tag("method", "getUsers")));
+    }
+
+    private static long count(Search search) {
+        if (search.summary() != null) {
+            return search.summary().count();
+        }
+        return search.timer() == null ? 0 : search.timer().count();
+    }
+
+    private void runScript(String script) {
+        new ResourceDatabasePopulator(new ClassPathResource(script)).execute(dataSource);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.clearsoul.config;
+
+import com.example.clearsoul.dto.UserCreateDto;
+import com.example.clearsoul.dto.UserDto;
+import com.example.clearsoul.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDate;
+import java.util.List;
+import javax.sql.DataSource;
+import liquibase.integration.spring.SpringLiquibase;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+@SpringBootTest(properties = "users.datasource.replica.url="
+        + ReadWriteRoutingDataSourceTest.REPLICA_URL)
+class ReadWriteRoutingDataSourceTest {
+    // daemon mode keeps the container up between the connections of the writer
+    static final String REPLICA_URL = "jdbc:tc:mysql:8.0.33:///replica?TC_DAEMON=true";
+    private static final DataSource REPLICA_WRITER =
+            new DriverManagerDataSource(REPLICA_URL, "test", "test");
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeAll
+    static void beforeAll(@Autowired ResourceLoader resourceLoader) throws Exception {
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(REPLICA_WRITER);
+        liquibase.setChangeLog("classpath:db/changelog/db.changelog-master.yaml");
+        liquibase.setResourceLoader(resourceLoader);
+        liquibase.afterPropertiesSet();
+    }
+
+    @BeforeEach
+    void setUp() {
+        runScript(dataSource, "database/users/add-three-users-to-db.sql");
+        new JdbcTemplate(REPLICA_WRITER).update("INSERT INTO users "
+                + "(id, email, first_name, last_name, birth_date, address, phone_number) "
+                + "VALUES (1, 'cthulhu@mail.com', 'Howard', 'Lovecraft', '1890-08-20', "
+                + "'Providence', '+380567891265')");
+    }
+
+    @AfterEach
+    void tearDown() {
+        runScript(dataSource, "database/users/clear-users-table.sql");
+        runScript(REPLICA_WRITER, "database/users/clear-users-table.sql");
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    @DisplayName("Read-only methods are served by the replica")
+    public void getAllUsers_ReplicaConfigured_ReadFromReplica() {
+        List<UserDto> actual = userService.getAllUsers();
+
+        assertEquals(1, actual.size());
+        assertEquals("cthulhu@mail.com", actual.get(0).getEmail());
+    }
+
+    @Test
+    @DisplayName("Lookup by id reads the user from the primary")
+    public void getById_UserOnlyOnPrimary_ReturnUserDto() {
+        UserDto actual = userService.getById(2L);
+
+        assertEquals("raven@mail.com", actual.getEmail());
+    }
+
+    @Test
+    @DisplayName("Version for a conditional request is read from the primary")
+    public void getVersion_UserOnlyOnPrimary_ReturnVersion() {
+        assertNotNull(userService.getVersion(2L));
+    }
+
+    @Test
+    @DisplayName("Writes go to the primary and both pools report metrics")
+    public void saveUser_ReplicaConfigured_WriteToPrimary() {
+        UserCreateDto createDto = new UserCreateDto()
+                .setEmail("arthur_gordon_pym@mail.com")
+                .setFirstName("Arthur")
+                .setLastName("Pym")
+                .setBirthDate(LocalDate.of(1838, 6, 16));
+
+        UserDto actual = userService.saveUser(createDto);
+        userService.getAllUsers();
+
+        assertEquals(createDto.getEmail(), userService.getById(actual.getId()).getEmail());
+        assertEquals(4, countUsers(dataSource));
+        assertEquals(1, countUsers(REPLICA_WRITER));
+        assertNotNull(meterRegistry.find("hikaricp.connections")
+                .tag("pool", DataSourceConfig.PRIMARY_POOL).gauge());
+        assertNotNull(meterRegistry.find("hikaricp.connections")
+                .tag("pool", DataSourceConfig.REPLICA_POOL).gauge());
+    }
+
+    private static void runScript(DataSource dataSource, String script) {
+        new ResourceDatabasePopulator(new ClassPathResource(script)).execute(dataSource);
+    }
+
+    private static Integer countUsers(DataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForObject(
+                "SELECT COUNT(*) FROM users", Integer.class);
+    }
+}
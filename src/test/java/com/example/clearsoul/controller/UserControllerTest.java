@@ -1,9 +1,19 @@
 package com.example.clearsoul.controller;
 
+import com.example.clearsoul.config.CacheConfig;
+import com.example.clearsoul.dto.UserBatchResultDto;
+import com.example.clearsoul.dto.UserBulkDeleteDto;
+import com.example.clearsoul.dto.UserBulkDeleteResultDto;
 import com.example.clearsoul.dto.UserCreateDto;
 import com.example.clearsoul.dto.UserDto;
+import com.example.clearsoul.dto.UserEventDto;
+import com.example.clearsoul.dto.UserImportResultDto;
+import com.example.clearsoul.dto.UserStatsDto;
 import com.example.clearsoul.dto.UserUpdateDto;
+import com.example.clearsoul.model.UserEventType;
+import com.example.clearsoul.service.EmailRegistry;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import java.time.LocalDate;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.AfterEach;
@@ -15,17 +25,36 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.jdbc.datasource.init.ScriptUtils;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.context.WebApplicationContext;
 import org.testcontainers.shaded.org.apache.commons.lang3.builder.EqualsBuilder;
 
@@ -34,12 +63,19 @@ import java.sql.Connection;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 class UserControllerTest {
     protected static MockMvc mockMvc;
     @Autowired
     private ObjectMapper objectMapper;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private EmailRegistry emailRegistry;
+    @Autowired
+    private TestRestTemplate restTemplate;
     private static final Long ID = 2L;
     private static final String EMAIL = "arthur_gordon_pym@mail.com";
     private static final String FIRST_NAME = "Arthur";
@@ -76,6 +112,29 @@ class UserControllerTest {
     @AfterEach
     void tearDown(@Autowired DataSource dataSource) {
         clearTable(dataSource);
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    private List<UserEventDto> readEvents(ResultActions actions) throws Exception {
+        MvcResult asyncResult = actions
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andReturn();
+        List<UserEventDto> events = new ArrayList<>();
+        for (String line : result.getResponse().getContentAsString().split("\n")) {
+            if (!line.isBlank()) {
+                events.add(objectMapper.readValue(line, UserEventDto.class));
+            }
+        }
+        return events;
+    }
+
+    private static HttpHeaders multipartHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.MULTIPART_FORM_DATA);
+        return headers;
     }
 
     @SneakyThrows
@@ -169,6 +228,115 @@ class UserControllerTest {
                 .andReturn();
     }
 
+    @Test
+    @DisplayName("Create user with taken email")
+    public void addUser_TakenEmail_Conflict() throws Exception {
+        emailRegistry.rebuild();
+        UserCreateDto createDto = createUserCreateDto().setEmail("cthulhu@mail.com");
+        String jsonRequest = objectMapper.writeValueAsString(createDto);
+
+        mockMvc.perform(post("/api/users")
+                        .content(jsonRequest)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.errors[0]")
+                        .value("User with email cthulhu@mail.com already exists"));
+    }
+
+    @Test
+    @DisplayName("Create users in batch")
+    public void addUsers_ValidInvalidAndDuplicateUsers_ReturnCreatedCountAndErrors()
+            throws Exception {
+        List<UserCreateDto> createDtos = List.of(
+                createUserCreateDto(),
+                createUserCreateDto().setEmail("wrong@email@com"),
+                createUserCreateDto().setEmail("gordon_pym@mail.com"),
+                createUserCreateDto().setEmail("cthulhu@mail.com"));
+        String jsonRequest = objectMapper.writeValueAsString(createDtos);
+
+        MvcResult result = mockMvc.perform(post("/api/users/batch")
+                        .content(jsonRequest)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+        UserBatchResultDto actual = objectMapper.readValue(
+                result.getResponse().getContentAsByteArray(), UserBatchResultDto.class);
+
+        Assertions.assertEquals(2, actual.getCreated());
+        Assertions.assertEquals(List.of(1, 3), actual.getErrors().stream()
+                .map(error -> error.getIndex())
+                .toList());
+    }
+
+    @Test
+    @DisplayName("Import users from CSV")
+    public void importUsers_CsvWithInvalidRows_ReturnCreatedCountAndErrors() throws Exception {
+        String csv = "email,first_name,last_name,birth_date,address,phone_number\n"
+                + "poe@mail.com,Edgar,Poe,1809-01-19,Baltimore,+380567891357\n"
+                + "wrong@email@com,Edgar,Poe,1809-01-19,Baltimore,+380567891357\n"
+                + "young@mail.com,Young,User,2020-01-01,,\n"
+                + "date@mail.com,Wrong,Date,1809-13-19,,\n"
+                + "\"shelley@mail.com\",Mary,Shelley,1797-08-30,\"London, UK\",\n";
+
+        MvcResult result = mockMvc.perform(post("/api/users/import")
+                        .content(csv)
+                        .contentType("text/csv"))
+                .andExpect(status().isOk())
+                .andReturn();
+        UserImportResultDto actual = objectMapper.readValue(
+                result.getResponse().getContentAsByteArray(), UserImportResultDto.class);
+
+        Assertions.assertEquals(5, actual.getRows());
+        Assertions.assertEquals(2, actual.getCreated());
+        Assertions.assertEquals(3, actual.getFailed());
+        Assertions.assertEquals(List.of(2L, 3L, 4L), actual.getErrors().stream()
+                .map(error -> error.getRow())
+                .toList());
+    }
+
+    @Test
+    @DisplayName("Import users from uploaded CSV file")
+    public void importUsersFile_CsvFile_ReturnCreatedCount() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "users.csv", "text/csv",
+                ("email,firstName,lastName,birthDate\n"
+                        + "poe@mail.com,Edgar,Poe,1809-01-19\n").getBytes());
+
+        MvcResult result = mockMvc.perform(multipart("/api/users/import").file(file))
+                .andExpect(status().isOk())
+                .andReturn();
+        UserImportResultDto actual = objectMapper.readValue(
+                result.getResponse().getContentAsByteArray(), UserImportResultDto.class);
+
+        Assertions.assertEquals(1, actual.getCreated());
+        Assertions.assertEquals(0, actual.getFailed());
+    }
+
+    @Test
+    @DisplayName("Import users from uploaded CSV file over the multipart size limit")
+    public void importUsersFile_FileOverMultipartLimit_ReturnRowCount() {
+        int rows = 40_000;
+        StringBuilder csv = new StringBuilder("email,firstName,lastName,birthDate\n");
+        for (int i = 0; i < rows; i++) {
+            csv.append("wrong_email_").append(i).append(".com,Edgar,Poe,1809-01-19\n");
+        }
+        MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
+        body.add("file", new ByteArrayResource(csv.toString().getBytes()) {
+            @Override
+            public String getFilename() {
+                return "users.csv";
+            }
+        });
+
+        ResponseEntity<UserImportResultDto> response = restTemplate.postForEntity(
+                "/api/users/import", new HttpEntity<>(body, multipartHeaders()),
+                UserImportResultDto.class);
+
+        Assertions.assertTrue(csv.length() > DataSize.ofMegabytes(1).toBytes());
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertEquals(rows, response.getBody().getRows());
+        Assertions.assertEquals(rows, response.getBody().getFailed());
+    }
+
     @Test
     @DisplayName("Get all users")
     public void getUsers_ReturnListDto() throws Exception {
@@ -181,6 +349,108 @@ class UserControllerTest {
         Assertions.assertEquals(USER_DTO_LIST, Arrays.stream(actual).toList());
     }
 
+    @Test
+    @DisplayName("Get users page by cursor")
+    public void getUsers_WithCursorAndLimit_ReturnPageAndNextCursor() throws Exception {
+        MvcResult firstPage = mockMvc.perform(get("/api/users")
+                        .param("limit", "2")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "2"))
+                .andReturn();
+        UserDto[] firstActual = objectMapper.readValue(
+                firstPage.getResponse().getContentAsByteArray(), UserDto[].class);
+        Assertions.assertEquals(USER_DTO_LIST.subList(0, 2), Arrays.stream(firstActual).toList());
+
+        MvcResult secondPage = mockMvc.perform(get("/api/users")
+                        .param("after", "2")
+                        .param("limit", "2")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andReturn();
+        UserDto[] secondActual = objectMapper.readValue(
+                secondPage.getResponse().getContentAsByteArray(), UserDto[].class);
+        Assertions.assertEquals(USER_DTO_LIST.subList(2, 3), Arrays.stream(secondActual).toList());
+    }
+
+    @Test
+    @DisplayName("Export all users as NDJSON")
+    public void exportUsers_ReturnUserPerLine() throws Exception {
+        MvcResult asyncResult = mockMvc.perform(get("/api/users/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        List<UserDto> actual = new ArrayList<>();
+        for (String line : lines) {
+            actual.add(objectMapper.readValue(line, UserDto.class));
+        }
+        Assertions.assertEquals(USER_DTO_LIST, actual);
+    }
+
+    @Test
+    @DisplayName("Stream user changes after cursor")
+    public void streamEvents_CreatePatchDelete_ReturnEventPerLine() throws Exception {
+        MvcResult created = mockMvc.perform(post("/api/users")
+                        .content(objectMapper.writeValueAsString(createUserCreateDto()))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+        Long id = objectMapper.readValue(
+                created.getResponse().getContentAsString(), UserDto.class).getId();
+        mockMvc.perform(patch("/api/users/" + id)
+                        .content("{\"firstName\":\"Augustus\"}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/users/2"))
+                .andExpect(status().isOk());
+
+        List<UserEventDto> actual = readEvents(mockMvc.perform(get("/api/users/events")
+                .param("follow", "false")));
+        Assertions.assertEquals(List.of(UserEventType.CREATED, UserEventType.UPDATED,
+                UserEventType.DELETED), actual.stream().map(UserEventDto::getType).toList());
+        Assertions.assertEquals(List.of(id, id, 2L),
+                actual.stream().map(UserEventDto::getUserId).toList());
+        Assertions.assertEquals("Augustus", actual.get(1).getUser().getFirstName());
+        Assertions.assertNull(actual.get(2).getUser());
+
+        List<UserEventDto> afterCursor = readEvents(mockMvc.perform(get("/api/users/events")
+                .param("after", actual.get(0).getId().toString())
+                .param("follow", "false")));
+        Assertions.assertEquals(actual.subList(1, 3), afterCursor);
+    }
+
+    @Test
+    @DisplayName("Stream user changes as server-sent events from Last-Event-ID")
+    public void streamEvents_EventStream_ReturnServerSentEvents() throws Exception {
+        mockMvc.perform(delete("/api/users/1"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/users/3"))
+                .andExpect(status().isOk());
+        List<UserEventDto> events = readEvents(mockMvc.perform(get("/api/users/events")
+                .param("follow", "false")));
+
+        MvcResult asyncResult = mockMvc.perform(get("/api/users/events")
+                        .param("follow", "false")
+                        .header("Last-Event-ID", events.get(0).getId())
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE,
+                        MediaType.TEXT_EVENT_STREAM_VALUE))
+                .andReturn();
+
+        String expected = "id: " + events.get(1).getId() + "\nevent: DELETED\ndata: "
+                + objectMapper.writeValueAsString(events.get(1)) + "\n\n";
+        Assertions.assertEquals(expected, result.getResponse().getContentAsString());
+    }
+
     @Test
     @DisplayName("Get user by id")
     public void getUserById_ValidId_ReturnUserDto() throws Exception {
@@ -199,6 +469,21 @@ class UserControllerTest {
         Assertions.assertEquals(USER_DTO_LIST.get(1), actual2);
     }
 
+    @Test
+    @DisplayName("Get user by id from cache until it is deleted")
+    public void getUserById_CachedUser_EvictedOnDelete() throws Exception {
+        mockMvc.perform(get("/api/users/1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        Assertions.assertEquals(USER_DTO_LIST.get(0),
+                cacheManager.getCache(CacheConfig.USERS_CACHE).get(1L, UserDto.class));
+
+        mockMvc.perform(delete("/api/users/1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        Assertions.assertNull(cacheManager.getCache(CacheConfig.USERS_CACHE).get(1L));
+    }
+
     @Test
     @DisplayName("Update user with valid data")
     public void updateUser_ValidData_UpdatedUser() throws Exception {
@@ -244,6 +529,46 @@ class UserControllerTest {
                 .andReturn();
     }
 
+    @Test
+    @DisplayName("Patch user with some fields")
+    public void patchUser_SomeFields_UpdatedOnlyGivenFields() throws Exception {
+        UserUpdateDto updateDto = new UserUpdateDto()
+                .setFirstName(FIRST_NAME)
+                .setPhoneNumber(PHONE_NUMBER);
+        String jsonRequest = objectMapper.writeValueAsString(updateDto);
+
+        mockMvc.perform(patch("/api/users/" + ID)
+                        .content(jsonRequest)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNoContent());
+
+        MvcResult result = mockMvc.perform(get("/api/users/" + ID)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+        UserDto expected = new UserDto()
+                .setId(ID)
+                .setEmail(USER_DTO_LIST.get(1).getEmail())
+                .setFirstName(FIRST_NAME)
+                .setLastName(USER_DTO_LIST.get(1).getLastName())
+                .setBirthDate(USER_DTO_LIST.get(1).getBirthDate())
+                .setAddress(USER_DTO_LIST.get(1).getAddress())
+                .setPhoneNumber(PHONE_NUMBER);
+        UserDto actual = objectMapper.readValue(result.getResponse().getContentAsByteArray(), UserDto.class);
+        Assertions.assertEquals(expected, actual);
+    }
+
+    @Test
+    @DisplayName("Patch user by invalid id")
+    public void patchUser_InvalidId_NotFound() throws Exception {
+        String jsonRequest = objectMapper.writeValueAsString(createUserUpdateDto());
+
+        mockMvc.perform(patch("/api/users/100")
+                        .content(jsonRequest)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     @DisplayName("Delete user by valid id")
     public void deleteUser_ValidId_ChangedUsersCount() throws Exception {
@@ -269,6 +594,231 @@ class UserControllerTest {
         Assertions.assertEquals(customersBefore.length - 1, customersAfter.length);
     }
 
+    @Test
+    @DisplayName("Get upcoming birthdays across new year")
+    public void getUpcomingBirthdays_RangeAcrossNewYear_ReturnNearestFirst() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/users/birthdays")
+                        .param("fromDate", "2023-12-25")
+                        .param("days", "30"))
+                .andExpect(status().isOk())
+                .andReturn();
+        UserDto[] actual = objectMapper.readValue(
+                result.getResponse().getContentAsByteArray(), UserDto[].class);
+
+        Assertions.assertEquals(List.of(2L, 3L), Arrays.stream(actual)
+                .map(UserDto::getId)
+                .toList());
+    }
+
+    @Test
+    @DisplayName("Get upcoming birthdays within year")
+    public void getUpcomingBirthdays_RangeWithinYear_ReturnUsers() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/users/birthdays")
+                        .param("fromDate", "2023-08-01")
+                        .param("days", "30"))
+                .andExpect(status().isOk())
+                .andReturn();
+        UserDto[] actual = objectMapper.readValue(
+                result.getResponse().getContentAsByteArray(), UserDto[].class);
+
+        Assertions.assertEquals(1, actual.length);
+        Assertions.assertEquals(1L, actual[0].getId());
+    }
+
+    @Test
+    @DisplayName("Get not modified user by ETag")
+    public void getUserById_CurrentETag_NotModified() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/users/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn();
+        String eTag = result.getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/users/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("Get changed user by outdated ETag")
+    public void getUserById_OutdatedETag_ReturnUser() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/users/1"))
+                .andExpect(status().isOk())
+                .andReturn();
+        String eTag = result.getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(patch("/api/users/1")
+                        .content(objectMapper.writeValueAsString(
+                                new UserUpdateDto().setFirstName("Lovecraft")))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNoContent());
+
+        MvcResult changed = mockMvc.perform(get("/api/users/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andReturn();
+        Assertions.assertNotEquals(eTag, changed.getResponse().getHeader(HttpHeaders.ETAG));
+        UserDto actual = objectMapper.readValue(
+                changed.getResponse().getContentAsByteArray(), UserDto.class);
+        Assertions.assertEquals("Lovecraft", actual.getFirstName());
+    }
+
+    @Test
+    @DisplayName("Get not modified user by ETag of updated user")
+    public void getUserById_ETagAfterUpdate_NotModified() throws Exception {
+        MvcResult before = mockMvc.perform(get("/api/users/" + ID))
+                .andExpect(status().isOk())
+                .andReturn();
+        String oldETag = before.getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(put("/api/users/" + ID)
+                        .content(objectMapper.writeValueAsString(createUserUpdateDto()))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        MvcResult after = mockMvc.perform(get("/api/users/" + ID))
+                .andExpect(status().isOk())
+                .andReturn();
+        String eTag = after.getResponse().getHeader(HttpHeaders.ETAG);
+        Assertions.assertNotEquals(oldETag, eTag);
+        mockMvc.perform(get("/api/users/" + ID)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("Get users page as Smile")
+    public void getUsers_AcceptSmile_ReturnSmileBody() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/users")
+                        .accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn();
+        ObjectMapper smileMapper = SmileMapper.builder().findAndAddModules().build();
+        UserDto[] actual = smileMapper.readValue(
+                result.getResponse().getContentAsByteArray(), UserDto[].class);
+
+        Assertions.assertEquals(USER_DTO_LIST, Arrays.asList(actual));
+    }
+
+    @Test
+    @DisplayName("Get statistics of active users from short-lived cache")
+    public void getStats_ActiveUsers_ReturnCachedStats() throws Exception {
+        LocalDate birthDate = LocalDate.now().minusYears(30);
+        mockMvc.perform(post("/api/users")
+                        .content(objectMapper.writeValueAsString(
+                                createUserCreateDto().setBirthDate(birthDate)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/users/2"))
+                .andExpect(status().isOk());
+
+        UserStatsDto expected = new UserStatsDto()
+                .setTotal(3)
+                .setAgeBuckets(Map.of("18-24", 0L, "25-34", 1L, "35-44", 0L,
+                        "45-54", 0L, "55-64", 0L, "65+", 2L))
+                .setBirthYears(Map.of(1806, 1L, 1890, 1L, birthDate.getYear(), 1L));
+        MvcResult result = mockMvc.perform(get("/api/users/stats"))
+                .andExpect(status().isOk())
+                .andReturn();
+        Assertions.assertEquals(expected, objectMapper.readValue(
+                result.getResponse().getContentAsByteArray(), UserStatsDto.class));
+
+        mockMvc.perform(delete("/api/users/1"))
+                .andExpect(status().isOk());
+        MvcResult cachedResult = mockMvc.perform(get("/api/users/stats"))
+                .andExpect(status().isOk())
+                .andReturn();
+        Assertions.assertEquals(expected, objectMapper.readValue(
+                cachedResult.getResponse().getContentAsByteArray(), UserStatsDto.class));
+    }
+
+    @Test
+    @DisplayName("Look up users by part of name or email")
+    public void lookupUsers_PartOfName_ReturnMatchingUsers() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/users/lookup")
+                        .param("q", "HOWARD"))
+                .andExpect(status().isOk())
+                .andReturn();
+        UserDto[] actual = objectMapper.readValue(
+                result.getResponse().getContentAsByteArray(), UserDto[].class);
+
+        Assertions.assertEquals(List.of(1L, 3L), Arrays.stream(actual)
+                .map(UserDto::getId)
+                .toList());
+    }
+
+    @Test
+    @DisplayName("Look up users with wildcard characters")
+    public void lookupUsers_WildcardCharacters_MatchLiterally() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/users/lookup")
+                        .param("q", "r_v%"))
+                .andExpect(status().isOk())
+                .andReturn();
+        UserDto[] actual = objectMapper.readValue(
+                result.getResponse().getContentAsByteArray(), UserDto[].class);
+
+        Assertions.assertEquals(0, actual.length);
+    }
+
+    @Test
+    @DisplayName("Look up users with too short text")
+    public void lookupUsers_TooShortText_BadRequest() throws Exception {
+        mockMvc.perform(get("/api/users/lookup")
+                        .param("q", "po"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Delete users by list of ids")
+    public void deleteUsers_Ids_ReturnDeletedCount() throws Exception {
+        String jsonRequest = objectMapper.writeValueAsString(
+                new UserBulkDeleteDto().setIds(List.of(1L, 3L, 100L)));
+
+        MvcResult result = mockMvc.perform(delete("/api/users")
+                        .content(jsonRequest)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+        UserBulkDeleteResultDto actual = objectMapper.readValue(
+                result.getResponse().getContentAsByteArray(), UserBulkDeleteResultDto.class);
+        Assertions.assertEquals(2, actual.getDeleted());
+
+        mockMvc.perform(get("/api/users/1"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/users/2"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Delete users by birth date range")
+    public void deleteUsers_BirthDateRange_ReturnDeletedCount() throws Exception {
+        String jsonRequest = objectMapper.writeValueAsString(new UserBulkDeleteDto()
+                .setFromDate(LocalDate.of(1800, 1, 1))
+                .setToDate(LocalDate.of(1810, 1, 1)));
+
+        MvcResult result = mockMvc.perform(delete("/api/users")
+                        .content(jsonRequest)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+        UserBulkDeleteResultDto actual = objectMapper.readValue(
+                result.getResponse().getContentAsByteArray(), UserBulkDeleteResultDto.class);
+        Assertions.assertEquals(2, actual.getDeleted());
+    }
+
+    @Test
+    @DisplayName("Delete users without ids and dates")
+    public void deleteUsers_EmptySelection_BadRequest() throws Exception {
+        mockMvc.perform(delete("/api/users")
+                        .content("{}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("Delete user by invalid id")
     public void deleteUser_InvalidId_NonChangedUserCount() throws Exception {
@@ -304,11 +854,27 @@ class UserControllerTest {
                 .andExpect(status().isOk())
                 .andReturn();
         UserDto[] actual = objectMapper.readValue(result.getResponse().getContentAsByteArray(), UserDto[].class);
-        List<UserDto> expected = List.of(USER_DTO_LIST.get(1), USER_DTO_LIST.get(2));
+        List<UserDto> expected = List.of(USER_DTO_LIST.get(2), USER_DTO_LIST.get(1));
         Assertions.assertEquals(2, actual.length);
         Assertions.assertEquals(expected, Arrays.stream(actual).toList());
     }
 
+    @Test
+    @DisplayName("Search page of users by date range")
+    public void searchByDateRange_PageAndSort_ReturnPageOfUsers() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/users/search")
+                        .param("fromDate", "1800-01-01")
+                        .param("toDate", "1900-01-01")
+                        .param("page", "1")
+                        .param("size", "1")
+                        .param("sort", "birthDate,desc")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+        UserDto[] actual = objectMapper.readValue(result.getResponse().getContentAsByteArray(), UserDto[].class);
+        Assertions.assertEquals(List.of(USER_DTO_LIST.get(1)), Arrays.stream(actual).toList());
+    }
+
     private static void userListInit(){
         USER_DTO_LIST.add(new UserDto()
                 .setId(1L)
@@ -0,0 +1,124 @@
+package com.example.clearsoul.controller;
+
+import com.example.clearsoul.config.CustomMySqlContainer;
+import com.example.clearsoul.dto.UserDto;
+import java.util.List;
+import javax.sql.DataSource;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.testcontainers.containers.MySQLContainer;
+import reactor.netty.DisposableServer;
+
+@SpringBootTest(properties = {"users.reactive.enabled=true", "users.reactive.port=0"})
+class UserReactiveHandlerTest {
+    private static final CustomMySqlContainer MY_SQL = CustomMySqlContainer.getInstance();
+    @Autowired
+    private DisposableServer reactiveServer;
+    @Autowired
+    private DataSource dataSource;
+    private WebTestClient webTestClient;
+
+    @DynamicPropertySource
+    static void databaseProperties(DynamicPropertyRegistry registry) {
+        MY_SQL.start();
+        registry.add("spring.datasource.url", MY_SQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MY_SQL::getUsername);
+        registry.add("spring.datasource.password", MY_SQL::getPassword);
+        registry.add("users.reactive.url", () -> "r2dbc:mysql://" + MY_SQL.getHost() + ":"
+                + MY_SQL.getMappedPort(MySQLContainer.MYSQL_PORT) + "/"
+                + MY_SQL.getDatabaseName());
+        registry.add("users.reactive.username", MY_SQL::getUsername);
+        registry.add("users.reactive.password", MY_SQL::getPassword);
+    }
+
+    @BeforeEach
+    void setUp() {
+        runScript("database/users/add-three-users-to-db.sql");
+        webTestClient = WebTestClient
+                .bindToServer()
+                .baseUrl("http://localhost:" + reactiveServer.port())
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        runScript("database/users/clear-users-table.sql");
+    }
+
+    @Test
+    @DisplayName("Stream users after the cursor")
+    public void getUsers_AfterCursor_ReturnUserPerLine() {
+        List<UserDto> actual = readUsers("/api/reactive/users?after=1");
+
+        assertEquals(List.of(2L, 3L), actual.stream().map(UserDto::getId).toList());
+        assertEquals("raven@mail.com", actual.get(0).getEmail());
+    }
+
+    @Test
+    @DisplayName("Get user by valid id")
+    public void getUserById_ValidId_ReturnUserDto() {
+        UserDto actual = webTestClient.get().uri("/api/reactive/users/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(UserDto.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertEquals("cthulhu@mail.com", actual.getEmail());
+        assertEquals("Lovecraft", actual.getLastName());
+    }
+
+    @Test
+    @DisplayName("Get user by invalid id")
+    public void getUserById_InvalidId_NotFound() {
+        webTestClient.get().uri("/api/reactive/users/100")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.errors[0]").isEqualTo("Can't find user with id 100");
+    }
+
+    @Test
+    @DisplayName("Stream users by birth date range sorted by birth date")
+    public void searchByDateRange_ValidRange_ReturnUsersByBirthDate() {
+        List<UserDto> actual = readUsers(
+                "/api/reactive/users/search?fromDate=1800-01-01&toDate=1850-01-01");
+
+        assertEquals(List.of(3L, 2L), actual.stream().map(UserDto::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Reject birth date range with the second date before the first")
+    public void searchByDateRange_InvalidRange_BadRequest() {
+        webTestClient.get()
+                .uri("/api/reactive/users/search?fromDate=1850-01-01&toDate=1800-01-01")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private List<UserDto> readUsers(String uri) {
+        return webTestClient.get().uri(uri)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(UserDto.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+    }
+
+    private void runScript(String script) {
+        new ResourceDatabasePopulator(new ClassPathResource(script)).execute(dataSource);
+    }
+}
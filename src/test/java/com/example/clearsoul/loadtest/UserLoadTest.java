@@ -0,0 +1,235 @@
+package com.example.clearsoul.loadtest;
+
+import com.example.clearsoul.dto.UserCreateDto;
+import com.example.clearsoul.dto.UserUpdateDto;
+import com.example.clearsoul.service.EmailRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Drives mixed traffic against the whole application and writes latency
+ * percentiles and throughput per endpoint to a JSON report.
+ * Run with: mvn -Pload-test test [-Dloadtest.users=10000 -Dloadtest.requests=20000
+ * -Dloadtest.concurrency=32 -Dloadtest.report=target/load-test/report.json]
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class UserLoadTest {
+    private static final int USERS = Integer.getInteger("loadtest.users", 10_000);
+    private static final int REQUESTS = Integer.getInteger("loadtest.requests", 20_000);
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 32);
+    private static final String REPORT = System.getProperty("loadtest.report",
+            "target/load-test/report.json");
+    private static final int SEED_BATCH_SIZE = 1000;
+    private static final LocalDate FIRST_BIRTH_DATE = LocalDate.of(1950, 1, 1);
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final Map<String, LatencyRecorder> recorders = new ConcurrentHashMap<>();
+    private final AtomicLong createdUsers = new AtomicLong();
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private EmailRegistry emailRegistry;
+    private long minId;
+    private long maxId;
+
+    @BeforeEach
+    void seedUsers() {
+        jdbcTemplate.update("DELETE FROM users");
+        List<Object[]> batch = new ArrayList<>(SEED_BATCH_SIZE);
+        for (int i = 0; i < USERS; i++) {
+            batch.add(new Object[] {"seed" + i + "@mail.com", "First" + i, "Last" + i,
+                    Date.valueOf(FIRST_BIRTH_DATE.plusDays(i % 18_000)), "Address", "+380567891265"});
+            if (batch.size() == SEED_BATCH_SIZE || i == USERS - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO users (email, first_name, last_name, "
+                        + "birth_date, address, phone_number) VALUES (?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        minId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM users", Long.class);
+        maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM users", Long.class);
+        emailRegistry.rebuild();
+    }
+
+    @Test
+    @DisplayName("Mixed create, get, update, search and delete traffic")
+    public void mixedTraffic_WriteReport() throws Exception {
+        AtomicInteger remaining = new AtomicInteger(REQUESTS);
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+        long start = System.nanoTime();
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < CONCURRENCY; i++) {
+            workers.add(executor.submit(() -> {
+                while (remaining.getAndDecrement() > 0) {
+                    sendRandomRequest();
+                }
+                return null;
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        executor.shutdown();
+
+        writeReport(elapsedNanos);
+        long errors = recorders.values().stream().mapToLong(LatencyRecorder::getErrors).sum();
+        Assertions.assertEquals(0, errors, "Unexpected error responses, see " + REPORT);
+    }
+
+    private void sendRandomRequest() throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int roll = random.nextInt(100);
+        long id = random.nextLong(minId, maxId + 1);
+        if (roll < 50) {
+            send("get", HttpRequest.newBuilder(uri("/api/users/" + id)).GET());
+        } else if (roll < 65) {
+            LocalDate fromDate = FIRST_BIRTH_DATE.plusDays(random.nextInt(18_000));
+            send("search", HttpRequest.newBuilder(uri("/api/users/search?fromDate=" + fromDate
+                    + "&toDate=" + fromDate.plusDays(30))).GET());
+        } else if (roll < 75) {
+            UserUpdateDto updateDto = new UserUpdateDto()
+                    .setFirstName("Updated" + random.nextInt(1000))
+                    .setAddress("New address");
+            send("update", jsonRequest(uri("/api/users/" + id))
+                    .PUT(HttpRequest.BodyPublishers.ofByteArray(
+                            objectMapper.writeValueAsBytes(updateDto))));
+        } else if (roll < 85) {
+            UserCreateDto createDto = createUserCreateDto("seed" + random.nextInt(USERS)
+                    + "@mail.com", random.nextInt(18_000));
+            send("create-duplicate", jsonRequest(uri("/api/users"))
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(
+                            objectMapper.writeValueAsBytes(createDto))));
+        } else if (roll < 95) {
+            long number = createdUsers.incrementAndGet();
+            UserCreateDto createDto = createUserCreateDto("load" + number + "@mail.com",
+                    number % 18_000);
+            send("create", jsonRequest(uri("/api/users"))
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(
+                            objectMapper.writeValueAsBytes(createDto))));
+        } else {
+            send("delete", HttpRequest.newBuilder(uri("/api/users/" + id)).DELETE());
+        }
+    }
+
+    private void send(String endpoint, HttpRequest.Builder request) throws Exception {
+        long start = System.nanoTime();
+        HttpResponse<Void> response = httpClient.send(request.build(),
+                HttpResponse.BodyHandlers.discarding());
+        long latency = System.nanoTime() - start;
+        boolean error = response.statusCode() >= 400 && response.statusCode() != 404
+                && !(isConflictExpected(endpoint) && response.statusCode() == 409);
+        recorders.computeIfAbsent(endpoint, key -> new LatencyRecorder()).record(latency, error);
+    }
+
+    private boolean isConflictExpected(String endpoint) {
+        return endpoint.equals("create-duplicate") || endpoint.equals("update");
+    }
+
+    private UserCreateDto createUserCreateDto(String email, long birthDayOffset) {
+        return new UserCreateDto()
+                .setEmail(email)
+                .setFirstName("Load")
+                .setLastName("User")
+                .setBirthDate(FIRST_BIRTH_DATE.plusDays(birthDayOffset))
+                .setAddress("Address")
+                .setPhoneNumber("+380567891265");
+    }
+
+    private HttpRequest.Builder jsonRequest(URI uri) {
+        return HttpRequest.newBuilder(uri).header("Content-Type", "application/json");
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private void writeReport(long elapsedNanos) throws Exception {
+        double seconds = elapsedNanos / 1e9;
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("users", USERS);
+        report.put("requests", REQUESTS);
+        report.put("concurrency", CONCURRENCY);
+        report.put("elapsedSeconds", seconds);
+        report.put("requestsPerSecond", REQUESTS / seconds);
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        recorders.forEach((endpoint, recorder) -> endpoints.put(endpoint,
+                recorder.summary(seconds)));
+        report.put("endpoints", endpoints);
+        File file = new File(REPORT);
+        file.getAbsoluteFile().getParentFile().mkdirs();
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file, report);
+    }
+
+    private static class LatencyRecorder {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        synchronized void record(long latencyNanos, boolean error) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+            if (error) {
+                errors++;
+            }
+        }
+
+        synchronized long getErrors() {
+            return errors;
+        }
+
+        synchronized Map<String, Object> summary(double seconds) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("count", count);
+            summary.put("errors", errors);
+            summary.put("requestsPerSecond", count / seconds);
+            summary.put("p50Millis", percentile(sorted, 0.50));
+            summary.put("p95Millis", percentile(sorted, 0.95));
+            summary.put("p99Millis", percentile(sorted, 0.99));
+            summary.put("maxMillis", percentile(sorted, 1.0));
+            return summary;
+        }
+
+        private static double percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.clearsoul.repository;
+
+import com.example.clearsoul.service.UserArchiveService;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import javax.sql.DataSource;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+@SpringBootTest
+class UserArchiveRepositoryTest {
+    private static final Duration RETENTION = Duration.ofDays(30);
+    private static final int BATCH_SIZE = 1;
+    @Autowired
+    private UserArchiveRepository userArchiveRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        runScript("database/users/add-three-users-to-db.sql");
+        softDelete(1L, LocalDateTime.now().minusDays(60));
+        softDelete(2L, LocalDateTime.now().minusDays(31));
+        softDelete(3L, LocalDateTime.now().minusDays(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        runScript("database/users/clear-users-table.sql");
+    }
+
+    @Test
+    @DisplayName("Deleted users past the retention are moved to the archive once, batch by batch")
+    public void archiveDeletedUsers_UsersPastRetention_MoveEachUserOnce() {
+        UserArchiveService archiveService = new UserArchiveService(
+                userArchiveRepository, RETENTION, BATCH_SIZE, false);
+
+        assertEquals(2, archiveService.archiveDeletedUsers());
+        assertEquals(0, archiveService.archiveDeletedUsers());
+
+        assertEquals(List.of(1L, 2L), jdbcTemplate.queryForList(
+                "SELECT id FROM users_archive ORDER BY id", Long.class));
+        assertEquals(List.of(3L), jdbcTemplate.queryForList(
+                "SELECT id FROM users ORDER BY id", Long.class));
+    }
+
+    private void softDelete(Long id, LocalDateTime deletedAt) {
+        jdbcTemplate.update("UPDATE users SET is_delete = TRUE, deleted_at = ? WHERE id = ?",
+                deletedAt, id);
+    }
+
+    private void runScript(String script) {
+        new ResourceDatabasePopulator(new ClassPathResource(script)).execute(dataSource);
+    }
+}
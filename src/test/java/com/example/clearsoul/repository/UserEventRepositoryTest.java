@@ -0,0 +1,78 @@
+package com.example.clearsoul.repository;
+
+import com.example.clearsoul.dto.UserEventDto;
+import com.example.clearsoul.model.UserEventType;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+class UserEventRepositoryTest {
+    private static final long WRITER_TIMEOUT_SECONDS = 10;
+    @Autowired
+    private UserEventRepository userEventRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private DataSource dataSource;
+
+    @AfterEach
+    void tearDown() {
+        new ResourceDatabasePopulator(
+                new ClassPathResource("database/users/clear-users-table.sql")).execute(dataSource);
+    }
+
+    @Test
+    @DisplayName("Writers don't wait for each other and a late commit is not skipped by the cursor")
+    public void findAfter_WriterCommitsLate_ReadEventsInCommitOrder() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch recorded = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> lateWriter = executor.submit(() ->
+                    transaction.executeWithoutResult(status -> {
+                        userEventRepository.insert(UserEventType.CREATED, 1L);
+                        recorded.countDown();
+                        await(commit);
+                    }));
+            recorded.await();
+            executor.submit(() -> transaction.executeWithoutResult(status ->
+                    userEventRepository.insert(UserEventType.CREATED, 2L)))
+                    .get(WRITER_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+            assertEquals(List.of(), userEventRepository.findAfter(0, 100));
+            commit.countDown();
+            lateWriter.get();
+
+            assertEquals(List.of(1L, 2L), userEventRepository.findAfter(0, 100).stream()
+                    .map(UserEventDto::getUserId)
+                    .toList());
+        } finally {
+            commit.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.clearsoul.service;
+
+import com.example.clearsoul.repository.UserRepository;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.time.LocalDate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class BirthDateIndexTest {
+    private static final LocalDate FROM_DATE = LocalDate.of(1800, 1, 1);
+    private static final LocalDate TO_DATE = LocalDate.of(1900, 1, 1);
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private BirthDateIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BirthDateIndex(userRepository, transactionManager);
+        index.put(1L, LocalDate.of(1890, 8, 20));
+        index.put(2L, LocalDate.of(1809, 1, 19));
+        index.put(3L, LocalDate.of(1806, 1, 22));
+        index.put(4L, LocalDate.of(1809, 1, 19));
+        index.put(5L, LocalDate.of(1950, 1, 1));
+    }
+
+    @Test
+    @DisplayName("Find ids ordered by birth date and id")
+    public void findIds_Range_ReturnIdsInBirthDateOrder() {
+        assertArrayEquals(new long[] {3L, 2L, 4L, 1L}, index.findIds(FROM_DATE, TO_DATE, 0, 10));
+        assertArrayEquals(new long[] {2L, 4L}, index.findIds(FROM_DATE, TO_DATE, 1, 2));
+    }
+
+    @Test
+    @DisplayName("Find ids after birth date change and removal")
+    public void findIds_ChangedAndRemovedUsers_ReturnCurrentIds() {
+        index.put(5L, LocalDate.of(1807, 5, 5));
+        index.put(1L, LocalDate.of(1950, 2, 2));
+        index.remove(2L);
+
+        assertArrayEquals(new long[] {3L, 5L, 4L}, index.findIds(FROM_DATE, TO_DATE, 0, 10));
+    }
+
+    @Test
+    @DisplayName("Find ids after many changes")
+    public void findIds_ManyChanges_ReturnCurrentIds() {
+        for (long id = 10; id < 10_010; id++) {
+            index.put(id, LocalDate.of(1700, 1, 1).plusDays(id));
+        }
+        for (long id = 10; id < 10_010; id += 2) {
+            index.remove(id);
+        }
+
+        assertArrayEquals(new long[] {11L, 13L, 15L},
+                index.findIds(LocalDate.of(1700, 1, 1), LocalDate.of(1700, 1, 16), 0, 10));
+        assertArrayEquals(new long[] {3L, 2L, 4L, 1L}, index.findIds(FROM_DATE, TO_DATE, 0, 10));
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.clearsoul.service;
+
+import com.example.clearsoul.exception.CsvFormatException;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CsvRecordReaderTest {
+    @Test
+    @DisplayName("Read quoted fields and both line ends")
+    public void readRecord_QuotedFields_ReturnFields() throws IOException {
+        CsvRecordReader reader = reader("email,firstName\r\n"
+                + "\"poe@mail.com\",\"Edgar \"\"Raven\"\", Allan\"\n"
+                + "lovecraft@mail.com,\n");
+
+        assertEquals(List.of("email", "firstName"), reader.readRecord());
+        assertEquals(List.of("poe@mail.com", "Edgar \"Raven\", Allan"), reader.readRecord());
+        assertEquals(List.of("lovecraft@mail.com", ""), reader.readRecord());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    @DisplayName("Read record with unclosed quote")
+    public void readRecord_UnclosedQuote_ThrowException() {
+        CsvRecordReader reader = reader("\"poe@mail.com,Edgar");
+
+        assertThrows(CsvFormatException.class, reader::readRecord);
+    }
+
+    private CsvRecordReader reader(String csv) {
+        return new CsvRecordReader(new BufferedReader(new StringReader(csv)));
+    }
+}
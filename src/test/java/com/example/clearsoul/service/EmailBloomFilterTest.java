@@ -0,0 +1,43 @@
+package com.example.clearsoul.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class EmailBloomFilterTest {
+    private static final int CAPACITY = 10_000;
+
+    @Test
+    @DisplayName("Filter contains every added email in any case")
+    public void mightContain_AddedEmails_ReturnTrue() {
+        EmailBloomFilter filter = new EmailBloomFilter(CAPACITY, 0.01);
+        for (int i = 0; i < CAPACITY; i++) {
+            filter.put("user" + i + "@mail.com");
+        }
+
+        for (int i = 0; i < CAPACITY; i++) {
+            assertTrue(filter.mightContain("user" + i + "@mail.com"));
+        }
+        assertTrue(filter.mightContain("USER42@MAIL.COM"));
+        assertFalse(filter.isFull());
+    }
+
+    @Test
+    @DisplayName("Filter rejects most emails that were not added")
+    public void mightContain_NewEmails_RarelyReturnTrue() {
+        EmailBloomFilter filter = new EmailBloomFilter(CAPACITY, 0.01);
+        for (int i = 0; i < CAPACITY; i++) {
+            filter.put("user" + i + "@mail.com");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < CAPACITY; i++) {
+            if (filter.mightContain("guest" + i + "@mail.com")) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < CAPACITY * 0.03, "False positives: " + falsePositives);
+    }
+}
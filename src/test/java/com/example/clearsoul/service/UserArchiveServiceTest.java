@@ -0,0 +1,54 @@
+package com.example.clearsoul.service;
+
+import com.example.clearsoul.repository.UserArchiveRepository;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class UserArchiveServiceTest {
+    private static final int BATCH_SIZE = 2;
+    @Mock
+    private UserArchiveRepository userArchiveRepository;
+
+    @Test
+    @DisplayName("Archive deleted users chunk by chunk")
+    public void archiveDeletedUsers_TwoChunks_ArchiveAllDeletedUsers() {
+        UserArchiveService archiveService = new UserArchiveService(
+                userArchiveRepository, Duration.ofDays(30), BATCH_SIZE, false);
+
+        when(userArchiveRepository.findDeletedIds(any(LocalDateTime.class), eq(BATCH_SIZE)))
+                .thenReturn(List.of(1L, 2L), List.of(3L));
+        when(userArchiveRepository.archive(List.of(1L, 2L))).thenReturn(2);
+        when(userArchiveRepository.archive(List.of(3L))).thenReturn(1);
+
+        assertEquals(3, archiveService.archiveDeletedUsers());
+        verify(userArchiveRepository, never()).purge(any());
+    }
+
+    @Test
+    @DisplayName("Purge deleted users")
+    public void archiveDeletedUsers_PurgeMode_PurgeDeletedUsers() {
+        UserArchiveService archiveService = new UserArchiveService(
+                userArchiveRepository, Duration.ofDays(30), BATCH_SIZE, true);
+
+        when(userArchiveRepository.findDeletedIds(any(LocalDateTime.class), eq(BATCH_SIZE)))
+                .thenReturn(List.of(1L));
+        when(userArchiveRepository.purge(List.of(1L))).thenReturn(1);
+
+        assertEquals(1, archiveService.archiveDeletedUsers());
+        verify(userArchiveRepository, never()).archive(any());
+    }
+}
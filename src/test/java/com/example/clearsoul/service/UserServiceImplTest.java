@@ -1,15 +1,26 @@
 package com.example.clearsoul.service;
 
+import com.example.clearsoul.config.CacheConfig;
+import com.example.clearsoul.dto.UserBatchResultDto;
+import com.example.clearsoul.dto.UserBulkDeleteDto;
 import com.example.clearsoul.dto.UserCreateDto;
 import com.example.clearsoul.dto.UserDto;
+import com.example.clearsoul.dto.UserPageDto;
+import com.example.clearsoul.dto.UserStatsDto;
 import com.example.clearsoul.dto.UserUpdateDto;
 import com.example.clearsoul.exception.DateRangeException;
+import com.example.clearsoul.exception.DuplicateEmailException;
 import com.example.clearsoul.exception.EntityNotFoundException;
 import com.example.clearsoul.exception.ForbiddenAgeException;
 import com.example.clearsoul.mapper.UserMapper;
 import com.example.clearsoul.model.User;
+import com.example.clearsoul.repository.UserBatchRepository;
+import com.example.clearsoul.repository.UserDeleteRepository;
+import com.example.clearsoul.repository.UserEventRepository;
 import com.example.clearsoul.repository.UserRepository;
+import jakarta.validation.Validator;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 
@@ -17,20 +28,53 @@ import java.time.LocalDate;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @ExtendWith(MockitoExtension.class)
 class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
     @Mock
+    private UserBatchRepository userBatchRepository;
+    @Mock
+    private UserDeleteRepository userDeleteRepository;
+    @Mock
+    private UserEventRepository userEventRepository;
+    @Mock
     private UserMapper userMapper;
+    @Mock
+    private Validator validator;
+    @Mock
+    private EmailRegistry emailRegistry;
+    @Mock
+    private ObjectProvider<BirthDateIndex> birthDateIndex;
+    @Mock
+    private ObjectProvider<UserUpdateCoalescer> updateCoalescer;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private CacheManager cacheManager;
     @InjectMocks
     private UserServiceImpl userService;
     private static final Long ID = 1994L;
@@ -69,38 +113,270 @@ class UserServiceImplTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    @DisplayName("Adding user with taken email")
+    public void saveUser_TakenEmail_ThrowException() {
+        UserCreateDto requestDto = createUserCreateDto();
+
+        when(emailRegistry.isTaken(EMAIL)).thenReturn(true);
+
+        Exception exception = assertThrows(DuplicateEmailException.class,
+                () -> userService.saveUser(requestDto));
+        String expected = "User with email " + EMAIL + " already exists";
+        assertEquals(expected, exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Patch user with email of another user")
+    public void patchUser_TakenEmail_ThrowException() {
+        UserUpdateDto updateDto = new UserUpdateDto().setEmail(EMAIL);
+
+        when(emailRegistry.isTakenByOther(EMAIL, ID)).thenReturn(true);
+
+        assertThrows(DuplicateEmailException.class, () -> userService.patchUser(ID, updateDto));
+    }
+
+    @Test
+    @DisplayName("Adding users in batch")
+    public void saveUsers_ValidAndTooYoungUsers_ReturnCreatedCountAndErrors() {
+        UserCreateDto validDto = createUserCreateDto();
+        UserCreateDto tooYoungDto = createUserCreateDto()
+                .setBirthDate(LocalDate.of(2020, 3, 16));
+        User user = createUser();
+
+        when(userMapper.toModel(validDto)).thenReturn(user);
+        when(userBatchRepository.insertAll(List.of(user))).thenReturn(List.of(user));
+
+        UserBatchResultDto actual = userService.saveUsers(List.of(tooYoungDto, validDto));
+        assertEquals(1, actual.getCreated());
+        assertEquals(1, actual.getErrors().size());
+        assertEquals(0, actual.getErrors().get(0).getIndex());
+        assertEquals(List.of("Age is forbidden. Come back to us later"),
+                actual.getErrors().get(0).getMessages());
+    }
+
+    @Test
+    @DisplayName("Delete users by large list of ids")
+    public void deleteUsers_LargeIdList_DeleteInChunks() {
+        List<Long> ids = Stream.iterate(1L, id -> id + 1).limit(2500).toList();
+
+        when(userDeleteRepository.softDeleteByIds(ids.subList(0, 1000)))
+                .thenReturn(ids.subList(0, 1000));
+        when(userDeleteRepository.softDeleteByIds(ids.subList(1000, 2000)))
+                .thenReturn(ids.subList(1000, 1990));
+        when(userDeleteRepository.softDeleteByIds(ids.subList(2000, 2500)))
+                .thenReturn(ids.subList(2000, 2500));
+
+        int actual = userService.deleteUsers(new UserBulkDeleteDto().setIds(ids)).getDeleted();
+        assertEquals(2490, actual);
+    }
+
+    @Test
+    @DisplayName("Delete users by birth date range batch by batch")
+    public void deleteUsers_BirthDateRange_DeleteUntilLastBatch() {
+        LocalDate fromDate = LocalDate.of(1800, 1, 1);
+        LocalDate toDate = LocalDate.of(1900, 1, 1);
+        List<Long> fullBatch = Stream.iterate(1L, id -> id + 1).limit(1000).toList();
+
+        when(userDeleteRepository.softDeleteByBirthDate(fromDate, toDate, 1000))
+                .thenReturn(fullBatch, List.of(1001L, 1002L));
+
+        int actual = userService.deleteUsers(new UserBulkDeleteDto()
+                .setFromDate(fromDate)
+                .setToDate(toDate)).getDeleted();
+        assertEquals(1002, actual);
+    }
+
+    @Test
+    @DisplayName("Delete user by id")
+    public void deleteUser_ValidId_SoftDeleteUser() {
+        when(userDeleteRepository.softDeleteByIds(List.of(ID))).thenReturn(List.of(ID));
+
+        userService.deleteUser(ID);
+        Mockito.verify(userDeleteRepository).softDeleteByIds(List.of(ID));
+    }
+
+    @Test
+    @DisplayName("Delete users removes only deleted users from the index")
+    public void deleteUsers_SomeAlreadyDeleted_RemoveDeletedFromIndex() {
+        BirthDateIndex index = Mockito.mock(BirthDateIndex.class);
+        Mockito.doAnswer(invocation -> {
+            invocation.<Consumer<BirthDateIndex>>getArgument(0).accept(index);
+            return null;
+        }).when(birthDateIndex).ifAvailable(any());
+        when(userDeleteRepository.softDeleteByIds(List.of(1L, 2L, 3L)))
+                .thenReturn(List.of(1L, 3L));
+
+        int actual = userService.deleteUsers(new UserBulkDeleteDto()
+                .setIds(List.of(1L, 2L, 3L))).getDeleted();
+        assertEquals(2, actual);
+        Mockito.verify(index).remove(1L);
+        Mockito.verify(index).remove(3L);
+        Mockito.verify(index, Mockito.never()).remove(2L);
+    }
+
+    @Test
+    @DisplayName("Get statistics from aggregated counts")
+    public void getStats_AggregatedCounts_ReturnUserStatsDto() {
+        when(userRepository.countByAgeBuckets(any(), any(), any(), any(), any()))
+                .thenReturn(List.<Object[]>of(new Object[] {5L, 1L, 2L, 0L, 0L, 0L, 2L}));
+        when(userRepository.countByBirthYear()).thenReturn(List.of(
+                new Object[] {1809, 2L}, new Object[] {1999, 1L}, new Object[] {2001, 2L}));
+
+        UserStatsDto actual = userService.getStats();
+        assertEquals(5, actual.getTotal());
+        assertEquals(Map.of("18-24", 1L, "25-34", 2L, "35-44", 0L, "45-54", 0L,
+                "55-64", 0L, "65+", 2L), actual.getAgeBuckets());
+        assertEquals(List.of("18-24", "25-34", "35-44", "45-54", "55-64", "65+"),
+                List.copyOf(actual.getAgeBuckets().keySet()));
+        assertEquals(Map.of(1809, 2L, 1999, 1L, 2001, 2L), actual.getBirthYears());
+    }
+
+    @Test
+    @DisplayName("Search users by birth date range in the in-memory index")
+    public void searchUsersByDateRange_IndexIsReady_ReturnUsersInIndexOrder() {
+        LocalDate fromDate = LocalDate.of(1800, 1, 1);
+        LocalDate toDate = LocalDate.of(1900, 1, 1);
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("birthDate", "id"));
+        BirthDateIndex index = Mockito.mock(BirthDateIndex.class);
+        UserDto firstDto = createUserDto().setId(1L);
+        UserDto secondDto = createUserDto().setId(2L);
+
+        when(birthDateIndex.getIfAvailable()).thenReturn(index);
+        when(index.isReady()).thenReturn(true);
+        when(index.findIds(fromDate, toDate, 0, 10)).thenReturn(new long[] {2L, 1L});
+        when(userRepository.findDtosByIdIn(List.of(2L, 1L)))
+                .thenReturn(List.of(firstDto, secondDto));
+        runInTransaction();
+
+        List<UserDto> actual = userService.searchUsersByDateRange(fromDate, toDate, pageable);
+        assertEquals(List.of(secondDto, firstDto), actual);
+    }
+
+    @Test
+    @DisplayName("Get upcoming birthdays across new year")
+    public void getUpcomingBirthdays_RangeAcrossNewYear_QueryBothYearEnds() {
+        UserDto december = createUserDto().setId(1L);
+        UserDto january = createUserDto().setId(2L);
+
+        when(userRepository.findDtosByBirthMonthDayBetween(
+                1220, 1231, PageRequest.of(0, 50))).thenReturn(List.of(december));
+        when(userRepository.findDtosByBirthMonthDayBetween(
+                101, 119, PageRequest.of(0, 50))).thenReturn(List.of(january));
+
+        List<UserDto> actual = userService.getUpcomingBirthdays(
+                LocalDate.of(2023, 12, 20), 30, PageRequest.of(0, 50));
+        assertEquals(List.of(december, january), actual);
+    }
+
+    @Test
+    @DisplayName("Get page of upcoming birthdays after new year only")
+    public void getUpcomingBirthdays_PageAfterNewYear_SkipBirthdaysBeforeNewYear() {
+        UserDto first = createUserDto().setId(1L);
+        UserDto second = createUserDto().setId(2L);
+        UserDto third = createUserDto().setId(3L);
+
+        when(userRepository.findDtosByBirthMonthDayBetween(
+                1220, 1231, PageRequest.of(1, 2))).thenReturn(List.of());
+        when(userRepository.countByBirthMonthDayBetween(1220, 1231)).thenReturn(1L);
+        when(userRepository.findDtosByBirthMonthDayBetween(
+                101, 119, PageRequest.of(0, 2))).thenReturn(List.of(first, second));
+        when(userRepository.findDtosByBirthMonthDayBetween(
+                101, 119, PageRequest.of(1, 2))).thenReturn(List.of(third));
+
+        List<UserDto> actual = userService.getUpcomingBirthdays(
+                LocalDate.of(2023, 12, 20), 30, PageRequest.of(1, 2));
+        assertEquals(List.of(second, third), actual);
+    }
+
     @Test
     @DisplayName("Get all users")
     public void getAllUsers_ReturnListOfUsers(){
-        User user = createUser();
         UserDto userDto = createUserDto();
-        List<User> users = List.of(user);
         List<UserDto> expected = List.of(userDto);
 
-        when(userRepository.findAll()).thenReturn(users);
-        when(userMapper.toDto(user)).thenReturn(userDto);
+        when(userRepository.findAllDtos()).thenReturn(expected);
 
         List<UserDto> actual = userService.getAllUsers();
         assertEquals(expected, actual);
     }
 
+    @Test
+    @DisplayName("Get full page of users")
+    public void getUsers_MoreUsersThanLimit_ReturnPageWithNextCursor() {
+        UserDto firstDto = createUserDto().setId(1L);
+        UserDto secondDto = createUserDto().setId(2L);
+
+        when(userRepository.findDtosByIdGreaterThan(0L, PageRequest.ofSize(2)))
+                .thenReturn(List.of(firstDto, secondDto));
+
+        UserPageDto actual = userService.getUsers(0L, 1);
+        assertEquals(List.of(firstDto), actual.getContent());
+        assertEquals(1L, actual.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Get last page of users")
+    public void getUsers_LessUsersThanLimit_ReturnPageWithoutNextCursor() {
+        UserDto userDto = createUserDto().setId(ID);
+
+        when(userRepository.findDtosByIdGreaterThan(ID - 1, PageRequest.ofSize(51)))
+                .thenReturn(List.of(userDto));
+
+        UserPageDto actual = userService.getUsers(ID - 1, 50);
+        assertEquals(List.of(userDto), actual.getContent());
+        assertNull(actual.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Export all users")
+    public void exportUsers_ConsumeEveryUser() {
+        UserDto userDto = createUserDto();
+        List<UserDto> actual = new ArrayList<>();
+
+        when(userRepository.streamAllDtos()).thenReturn(Stream.of(userDto));
+
+        userService.exportUsers(actual::add);
+        assertEquals(List.of(userDto), actual);
+    }
+
     @Test
     @DisplayName("Get user by valid id")
     public void getById_ValidId_ReturnUserDto(){
-        User user = createUser();
         UserDto expected = createUserDto();
 
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(userMapper.toDto(user)).thenReturn(expected);
+        when(userRepository.findDtoById(anyLong())).thenReturn(Optional.of(expected));
 
         UserDto actual = userService.getById(ID);
         assertEquals(expected, actual);
     }
 
+    @Test
+    @DisplayName("Get version of a cached user without a query")
+    public void getVersion_CachedUser_ReturnCachedVersion() {
+        Cache usersCache = new ConcurrentMapCache(CacheConfig.USERS_CACHE);
+        usersCache.put(ID, createUserDto().setVersion(3L));
+
+        when(cacheManager.getCache(CacheConfig.USERS_CACHE)).thenReturn(usersCache);
+
+        assertEquals(3L, userService.getVersion(ID));
+        Mockito.verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Get version of a user missing in the cache")
+    public void getVersion_NotCachedUser_ReturnVersion() {
+        when(cacheManager.getCache(CacheConfig.USERS_CACHE))
+                .thenReturn(new ConcurrentMapCache(CacheConfig.USERS_CACHE));
+        when(userRepository.findVersionById(ID)).thenReturn(Optional.of(5L));
+
+        assertEquals(5L, userService.getVersion(ID));
+    }
+
     @Test
     @DisplayName("Get user by invalid id")
     public void getById_InvalidId_ThrowException(){
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userRepository.findDtoById(anyLong())).thenReturn(Optional.empty());
 
         Exception exception = assertThrows(EntityNotFoundException.class,
                 () -> userService.getById(ID));
@@ -122,8 +398,9 @@ class UserServiceImplTest {
                 .setPhoneNumber("+380653268497");
         UserDto expected = createUserDto();
 
+        runInTransaction();
         when(userRepository.findById(ID)).thenReturn(Optional.of(user));
-        when(userRepository.save(user)).thenReturn(user);
+        when(userRepository.saveAndFlush(user)).thenReturn(user);
         when(userMapper.toDto(user)).thenReturn(expected);
 
         UserDto actual = userService.updateUser(ID, updateDto);
@@ -136,6 +413,7 @@ class UserServiceImplTest {
         UserUpdateDto updateDto = createUserUpdateDto();
         updateDto.setBirthDate(LocalDate.of(2000, 3, 16));
 
+        runInTransaction();
         when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
 
         Exception exception = assertThrows(EntityNotFoundException.class,
@@ -152,6 +430,7 @@ class UserServiceImplTest {
         User user = createUser();
         updateDto.setBirthDate(LocalDate.of(2020, 12, 4));
 
+        runInTransaction();
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
 
         Exception exception = assertThrows(ForbiddenAgeException.class,
@@ -161,21 +440,46 @@ class UserServiceImplTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    @DisplayName("Patch user by invalid id")
+    public void patchUser_InvalidId_ThrowException() {
+        UserUpdateDto updateDto = new UserUpdateDto().setFirstName(FIRST_NAME);
+
+        when(userRepository.updateNonNullFields(ID, null, FIRST_NAME, null, null, null, null))
+                .thenReturn(0);
+
+        Exception exception = assertThrows(EntityNotFoundException.class,
+                () -> userService.patchUser(ID, updateDto));
+        String expected = "Can't find user with id " + ID;
+        String actual = exception.getMessage();
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    @DisplayName("Patch user by invalid age")
+    public void patchUser_InvalidAge_ThrowException() {
+        UserUpdateDto updateDto = new UserUpdateDto().setBirthDate(LocalDate.of(2020, 12, 4));
+
+        Exception exception = assertThrows(ForbiddenAgeException.class,
+                () -> userService.patchUser(ID, updateDto));
+        String expected = "Age is forbidden. Come back to us later";
+        String actual = exception.getMessage();
+        assertEquals(expected, actual);
+    }
+
     @Test
     @DisplayName("Search users by valid date range")
     public void searchUsersByDateRange_ValidRange_ReturnListOfUsers() {
         LocalDate fromDate = LocalDate.of(1835, 3, 6);
         LocalDate toDate = LocalDate.of(1837, 6, 3);
-        User user = createUser();
         UserDto userDto = createUserDto();
-
-        List<User> users = List.of(user);
         List<UserDto> expected = List.of(userDto);
+        Pageable pageable = PageRequest.of(0, 20, Sort.by("birthDate"));
 
-        when(userRepository.findByBirthDateBetween(fromDate, toDate)).thenReturn(users);
-        when(userMapper.toDto(user)).thenReturn(userDto);
+        when(userRepository.findDtosByBirthDateBetween(fromDate, toDate, pageable))
+                .thenReturn(expected);
 
-        List<UserDto> actual = userService.searchUsersByDateRange(fromDate, toDate);
+        List<UserDto> actual = userService.searchUsersByDateRange(fromDate, toDate, pageable);
         assertEquals(expected, actual);
     }
 
@@ -186,12 +490,17 @@ class UserServiceImplTest {
         LocalDate toDate = LocalDate.of(1835, 6, 3);
 
         Exception exception = assertThrows(DateRangeException.class,
-                () -> userService.searchUsersByDateRange(fromDate, toDate));
+                () -> userService.searchUsersByDateRange(fromDate, toDate, Pageable.unpaged()));
         String expected = "The second date is after the first. Change it!";
         String actual = exception.getMessage();
         assertEquals(expected, actual);
     }
 
+    private void runInTransaction() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
     private static UserCreateDto createUserCreateDto() {
         return new UserCreateDto()
                 .setEmail(EMAIL)
@@ -0,0 +1,156 @@
+package com.example.clearsoul.service;
+
+import com.example.clearsoul.dto.UserDto;
+import com.example.clearsoul.dto.UserUpdateDto;
+import com.example.clearsoul.exception.EntityNotFoundException;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class UserUpdateCoalescerTest {
+    private static final Long ID = 1994L;
+    private static final long TIMEOUT_SECONDS = 10;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private final ExecutorService executor = Executors.newFixedThreadPool(3);
+    private final List<UserUpdateDto> writes = new CopyOnWriteArrayList<>();
+    private final CountDownLatch firstWriteStarted = new CountDownLatch(1);
+    private final CountDownLatch firstWriteReleased = new CountDownLatch(1);
+    private final BiFunction<Long, UserUpdateDto, UserDto> writer = (id, changes) -> {
+        writes.add(changes);
+        if (writes.size() == 1) {
+            firstWriteStarted.countDown();
+            await(firstWriteReleased);
+        }
+        return new UserDto().setId(id)
+                .setEmail(changes.getEmail())
+                .setFirstName(changes.getFirstName())
+                .setLastName(changes.getLastName());
+    };
+
+    @AfterEach
+    void tearDown() {
+        firstWriteReleased.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Updates of one user one after another are written separately at once")
+    public void update_SequentialUpdates_WriteEachUpdate() {
+        UserUpdateCoalescer coalescer = new UserUpdateCoalescer(transactionManager);
+        firstWriteReleased.countDown();
+
+        coalescer.update(ID, new UserUpdateDto().setFirstName("Arthur"), writer);
+        UserDto actual = coalescer.update(ID, new UserUpdateDto().setLastName("Pym"), writer);
+
+        assertEquals(2, writes.size());
+        assertNull(actual.getFirstName());
+        assertEquals("Pym", actual.getLastName());
+    }
+
+    @Test
+    @DisplayName("Updates arriving during a write are merged last writer wins into the next write")
+    public void update_TwoUpdatesDuringWrite_WriteMergedUpdateOnce() throws Exception {
+        UserUpdateCoalescer coalescer = new UserUpdateCoalescer(transactionManager);
+
+        Future<UserDto> firstResult = executor.submit(() -> coalescer.update(ID,
+                new UserUpdateDto().setFirstName("Arthur"), writer));
+        firstWriteStarted.await();
+        Future<UserDto> secondResult = submitMerged(coalescer, new UserUpdateDto()
+                .setEmail("arthur_gordon_pym@mail.com")
+                .setFirstName("Dirk"), writer);
+        Future<UserDto> thirdResult = submitMerged(coalescer, new UserUpdateDto()
+                .setFirstName("Augustus")
+                .setLastName("Barnard"), writer);
+        firstWriteReleased.countDown();
+
+        assertEquals("Arthur", get(firstResult).getFirstName());
+        UserDto actual = get(secondResult);
+        assertSame(actual, get(thirdResult));
+        assertEquals(2, writes.size());
+        assertEquals("arthur_gordon_pym@mail.com", actual.getEmail());
+        assertEquals("Augustus", actual.getFirstName());
+        assertEquals("Barnard", actual.getLastName());
+    }
+
+    @Test
+    @DisplayName("Failed merged write is reported to every caller")
+    public void update_WriterFails_ThrowExceptionToAllCallers() throws Exception {
+        UserUpdateCoalescer coalescer = new UserUpdateCoalescer(transactionManager);
+        BiFunction<Long, UserUpdateDto, UserDto> failingWriter = (id, changes) -> {
+            writer.apply(id, changes);
+            throw new EntityNotFoundException("Can't find user with id " + id);
+        };
+
+        Future<UserDto> firstResult = executor.submit(() -> coalescer.update(ID,
+                new UserUpdateDto().setFirstName("Arthur"), failingWriter));
+        firstWriteStarted.await();
+        Future<UserDto> secondResult = submitMerged(coalescer,
+                new UserUpdateDto().setFirstName("Augustus"), failingWriter);
+        Future<UserDto> thirdResult = submitMerged(coalescer,
+                new UserUpdateDto().setLastName("Pym"), failingWriter);
+        firstWriteReleased.countDown();
+
+        for (Future<UserDto> result : List.of(firstResult, secondResult, thirdResult)) {
+            ExecutionException exception = assertThrows(ExecutionException.class,
+                    () -> get(result));
+            assertEquals(EntityNotFoundException.class, exception.getCause().getClass());
+        }
+        assertEquals(2, writes.size());
+    }
+
+    /**
+     * Submits the update and returns once the coalescer has merged it, which reads
+     * the phone number last.
+     */
+    private Future<UserDto> submitMerged(UserUpdateCoalescer coalescer, UserUpdateDto updateDto,
+                                         BiFunction<Long, UserUpdateDto, UserDto> writer)
+            throws InterruptedException {
+        CountDownLatch merged = new CountDownLatch(1);
+        UserUpdateDto observedDto = new UserUpdateDto() {
+            @Override
+            public String getPhoneNumber() {
+                merged.countDown();
+                return super.getPhoneNumber();
+            }
+        };
+        observedDto.setEmail(updateDto.getEmail())
+                .setFirstName(updateDto.getFirstName())
+                .setLastName(updateDto.getLastName());
+        Future<UserDto> result = executor.submit(() ->
+                coalescer.update(ID, observedDto, writer));
+        merged.await();
+        return result;
+    }
+
+    private static UserDto get(Future<UserDto> result) throws Exception {
+        return result.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1 +1,3 @@
 DELETE FROM users;
+DELETE FROM user_events;
+DELETE FROM users_archive;